@@ -0,0 +1,70 @@
+package com.racines_app_back.www.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Corps de l'email OTP : ancien String.format sur le HTML complet contre le gabarit analysé une fois
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String OTP_CODE = "482913";
+
+    private String source;
+    private String format;
+    private EmailTemplate template;
+    private EmailTemplates templates;
+    private Map<String, String> values;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream input = EmailTemplateBenchmark.class.getResourceAsStream("/templates/email/otp.html")) {
+            source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // Même HTML que le gabarit, au format attendu par l'ancien chemin
+        format = source.replace("%", "%%").replace("{{code}}", "%s");
+        template = EmailTemplate.parse(source);
+        templates = new EmailTemplates();
+        values = Map.of("code", OTP_CODE);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(format, OTP_CODE);
+    }
+
+    @Benchmark
+    public String templateRender() {
+        return template.render(values);
+    }
+
+    // Chemin réel de BrevoEmailService : recherche dans le cache par langue puis rendu
+    @Benchmark
+    public String cachedTemplates() {
+        return templates.render("otp", values);
+    }
+
+    // Sans cache : analyse du gabarit à chaque envoi
+    @Benchmark
+    public String parseAndRender() {
+        return EmailTemplate.parse(source).render(values);
+    }
+}
@@ -0,0 +1,55 @@
+package com.racines_app_back.www.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Un seul thread et une seule reconstruction en attente : celle-ci couvre toutes les demandes écartées
+    @Bean
+    public ThreadPoolTaskExecutor publicTreeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("public-tree-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Vérifications BCrypt des connexions administrateur : file bornée, les demandes en excès sont refusées
+    @Bean
+    public ThreadPoolTaskExecutor passwordExecutor(
+            @Value("${app.password.executor.threads:2}") int threads,
+            @Value("${app.password.executor.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Fin des connexions par mot de passe (mise à jour du hash, envoi de l'OTP), séparée du pool BCrypt
+    @Bean
+    public ThreadPoolTaskExecutor loginCompletionExecutor(
+            @Value("${app.password.completion.threads:4}") int threads,
+            @Value("${app.password.completion.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.racines_app_back.www.config;
+
+import com.racines_app_back.www.controller.AuthController;
+import com.racines_app_back.www.domain.dto.LoginInitiateDTO;
+import com.racines_app_back.www.domain.dto.LoginVerifyOTPDTO;
+import com.racines_app_back.www.domain.dto.LoginVerifyPasswordDTO;
+import com.racines_app_back.www.service.ratelimit.AuthRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+// Limite par email des requêtes d'authentification, une fois le corps désérialisé
+@ControllerAdvice(assignableTypes = AuthController.class)
+@RequiredArgsConstructor
+public class AuthRateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final AuthRateLimiter rateLimiter;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == LoginInitiateDTO.class
+                || targetType == LoginVerifyOTPDTO.class
+                || targetType == LoginVerifyPasswordDTO.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        if (body instanceof LoginInitiateDTO dto) {
+            rateLimiter.checkEmail(dto.getEmail());
+        } else if (body instanceof LoginVerifyOTPDTO dto) {
+            rateLimiter.checkEmail(dto.getEmail());
+        } else if (body instanceof LoginVerifyPasswordDTO dto) {
+            rateLimiter.checkEmail(dto.getEmail());
+        }
+        return body;
+    }
+}
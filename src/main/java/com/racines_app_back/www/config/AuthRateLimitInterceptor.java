@@ -0,0 +1,28 @@
+package com.racines_app_back.www.config;
+
+import com.racines_app_back.www.service.ratelimit.AuthRateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Limite par adresse IP avant AuthController ; en intercepteur plutôt qu'en filtre de servlet,
+// le refus passe par GlobalExceptionHandler comme les autres erreurs de l'API
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimitInterceptor implements HandlerInterceptor {
+
+    private final AuthRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Le redispatch d'une réponse asynchrone repasse par l'intercepteur : ne compter que la requête initiale
+        if ("POST".equals(request.getMethod()) && request.getDispatcherType() != DispatcherType.ASYNC) {
+            // Adresse du client réel : server.forward-headers-strategy la reprend de X-Forwarded-For derrière le proxy
+            rateLimiter.checkIp(request.getRemoteAddr());
+        }
+        return true;
+    }
+}
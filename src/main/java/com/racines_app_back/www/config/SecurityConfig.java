@@ -27,6 +27,9 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.client.registration.google.client-id:}")
     private String googleClientId;
 
+    @Value("${app.auth.mode:session}")
+    private String authMode;
+
     @Autowired(required = false)
     private ClientRegistrationRepository clientRegistrationRepository;
 
@@ -52,6 +55,8 @@ public class SecurityConfig {
                     .oauth2Login(oauth2 -> oauth2
                             .defaultSuccessUrl("/api/auth/success", true)
                             .failureUrl("/api/auth/failure"));
+        } else if ("token".equalsIgnoreCase(authMode)) {
+            http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         } else {
             http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED));
         }
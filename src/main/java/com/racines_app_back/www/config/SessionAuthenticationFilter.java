@@ -1,13 +1,15 @@
 package com.racines_app_back.www.config;
 
-import com.racines_app_back.www.domain.entity.User;
-import com.racines_app_back.www.domain.repository.UserRepository;
+import com.racines_app_back.www.service.security.SessionTokenService;
+import com.racines_app_back.www.service.security.UserCache;
+import com.racines_app_back.www.service.security.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -23,35 +25,44 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SessionAuthenticationFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    private final UserCache userCache;
+    private final SessionTokenService sessionTokenService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (sessionTokenService.isEnabled() && authorization != null && authorization.startsWith(BEARER_PREFIX) &&
+            SecurityContextHolder.getContext().getAuthentication() == null) {
+            sessionTokenService.verify(authorization.substring(BEARER_PREFIX.length())).ifPresent(this::authenticate);
+        }
+
         HttpSession session = request.getSession(false);
         
         if (session != null && session.getAttribute("userId") != null && 
             SecurityContextHolder.getContext().getAuthentication() == null) {
             
             UUID userId = (UUID) session.getAttribute("userId");
-            User user = userRepository.findById(userId).orElse(null);
-            
-            if (user != null) {
-                List<SimpleGrantedAuthority> authorities = List.of(
-                        new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-                );
-                
-                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        user.getEmail(),
-                        null,
-                        authorities
-                );
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            userCache.findById(userId).ifPresent(this::authenticate);
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(UserPrincipal principal) {
+        List<SimpleGrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_" + principal.role().name())
+        );
+        
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities
+        );
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
 }
@@ -1,14 +1,37 @@
 package com.racines_app_back.www.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    // Pool dédié à Brevo : connexions et attentes d'acquisition bornées, délais de connexion et de réponse
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient brevoWebClient(
+            @Value("${app.mail.transport.max-connections:16}") int maxConnections,
+            @Value("${app.mail.transport.pending-acquire-max:64}") int pendingAcquireMax,
+            @Value("${app.mail.transport.connect-timeout:PT3S}") Duration connectTimeout,
+            @Value("${app.mail.transport.response-timeout:PT10S}") Duration responseTimeout) {
+        ConnectionProvider provider = ConnectionProvider.builder("brevo")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(connectTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
@@ -1,5 +1,6 @@
 package com.racines_app_back.www.controller;
 
+import com.racines_app_back.www.config.SessionAuthenticationFilter;
 import com.racines_app_back.www.domain.dto.*;
 import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.enums.LoginType;
@@ -8,22 +9,28 @@ import com.racines_app_back.www.domain.repository.UserRepository;
 import com.racines_app_back.www.exception.UserNotFoundException;
 import com.racines_app_back.www.service.OTPService;
 import com.racines_app_back.www.service.PasswordService;
+import com.racines_app_back.www.service.security.SessionTokenService;
+import com.racines_app_back.www.service.security.UserPrincipal;
 import com.racines_app_back.www.util.BrevoEmailService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
-@RequiredArgsConstructor
 @Slf4j
 public class AuthController {
 
@@ -31,6 +38,22 @@ public class AuthController {
     private final OTPService otpService;
     private final PasswordService passwordService;
     private final BrevoEmailService emailService;
+    private final SessionTokenService sessionTokenService;
+    private final TaskExecutor loginCompletionExecutor;
+
+    public AuthController(UserRepository userRepository,
+                          OTPService otpService,
+                          PasswordService passwordService,
+                          BrevoEmailService emailService,
+                          SessionTokenService sessionTokenService,
+                          @Qualifier("loginCompletionExecutor") TaskExecutor loginCompletionExecutor) {
+        this.userRepository = userRepository;
+        this.otpService = otpService;
+        this.passwordService = passwordService;
+        this.emailService = emailService;
+        this.sessionTokenService = sessionTokenService;
+        this.loginCompletionExecutor = loginCompletionExecutor;
+    }
 
     @GetMapping("/success")
     public ResponseEntity<ApiResponse<Map<String, Object>>> authSuccess(
@@ -85,17 +108,15 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getCurrentUser(
-            @AuthenticationPrincipal OAuth2User oauth2User,
-            HttpSession session) {
+            @AuthenticationPrincipal Object principal) {
 
         User user = null;
 
-        if (oauth2User != null) {
+        if (principal instanceof OAuth2User oauth2User) {
             String email = oauth2User.getAttribute("email");
             user = userRepository.findByEmail(email).orElse(null);
-        } else if (session.getAttribute("userId") != null) {
-            user = userRepository.findById((java.util.UUID) session.getAttribute("userId"))
-                    .orElse(null);
+        } else if (principal instanceof UserPrincipal userPrincipal) {
+            user = userRepository.findById(userPrincipal.id()).orElse(null);
         }
 
         if (user == null) {
@@ -119,18 +140,15 @@ public class AuthController {
 
         if (user == null) {
             // Inscription : l'utilisateur n'existe pas, on crée un nouveau compte
-            String otpCode = otpService.generateOTP();
-
             user = User.builder()
                     .email(request.getEmail())
                     .nom("")
                     .prenom("")
                     .dateNaissance(LocalDate.now().minusYears(25))
                     .role(Role.PENDING_USER)
-                    .otpCode(otpCode)
-                    .otpExpiresAt(otpService.getExpiryTime())
                     .build();
             user = userRepository.save(user);
+            String otpCode = otpService.issueOTP(user.getEmail());
 
             log.info("Nouveau compte créé pour l'inscription: email={}", user.getEmail());
 
@@ -160,10 +178,7 @@ public class AuthController {
                     "message", "Administrateur détecté. Veuillez entrer votre mot de passe.")));
         } else {
             // Connexion avec OTP pour les utilisateurs normaux
-            String otpCode = otpService.generateOTP();
-            user.setOtpCode(otpCode);
-            user.setOtpExpiresAt(otpService.getExpiryTime());
-            userRepository.save(user);
+            String otpCode = otpService.issueOTP(user.getEmail());
 
             try {
                 emailService.sendOTP(user.getEmail(), otpCode);
@@ -180,51 +195,63 @@ public class AuthController {
 
     @PostMapping("/login/verify-otp")
     public ResponseEntity<ApiResponse<Map<String, Object>>> verifyOTP(
-            @Valid @RequestBody LoginVerifyOTPDTO request,
-            HttpSession session) {
-        User user = userRepository.findByEmail(request.getEmail())
+            @Valid @RequestBody LoginVerifyOTPDTO dto,
+            HttpServletRequest request) {
+        User user = userRepository.findByEmail(dto.getEmail())
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
 
-        if (!otpService.verifyOTP(request.getOtpCode(), user.getOtpCode(), user.getOtpExpiresAt())) {
+        if (!otpService.verifyOTP(user.getEmail(), dto.getOtpCode())) {
             return ResponseEntity.ok(ApiResponse.error("Code OTP invalide ou expiré"));
         }
 
-        user.setOtpCode(null);
-        user.setOtpExpiresAt(null);
-        userRepository.save(user);
-
-        session.setAttribute("userId", user.getId());
-        session.setAttribute("userEmail", user.getEmail());
-
-        Map<String, Object> userInfo = Map.of(
+        Map<String, Object> userInfo = new HashMap<>(Map.of(
                 "id", user.getId(),
                 "email", user.getEmail(),
                 "nom", user.getNom(),
                 "prenom", user.getPrenom(),
-                "role", user.getRole().name());
+                "role", user.getRole().name()));
+
+        if (sessionTokenService.isEnabled()) {
+            // Mode sans état : aucun attribut de session, le client renvoie le jeton en en-tête Authorization
+            SessionTokenService.IssuedToken token = sessionTokenService.issue(user);
+            userInfo.put("token", token.token());
+            userInfo.put("expiresAt", token.expiresAt().toString());
+        } else {
+            HttpSession session = request.getSession();
+            session.setAttribute("userId", user.getId());
+            session.setAttribute("userEmail", user.getEmail());
+        }
 
         return ResponseEntity.ok(ApiResponse.success(userInfo));
     }
 
     @PostMapping("/login/verify-password")
-    public ResponseEntity<ApiResponse<Map<String, String>>> verifyPassword(
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> verifyPassword(
             @Valid @RequestBody LoginVerifyPasswordDTO request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
 
         if (user.getRole() != Role.SUPER_ADMIN) {
-            return ResponseEntity.ok(ApiResponse.error("Cette méthode est réservée aux administrateurs"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.ok(ApiResponse.error("Cette méthode est réservée aux administrateurs")));
         }
 
-        if (!passwordService.matches(request.getPassword(), user.getPasswordHash())) {
+        // Le thread de requête est libéré pendant le calcul BCrypt ; la suite (base, envoi de l'OTP) ne doit pas occuper le pool BCrypt
+        return passwordService.checkAsync(request.getPassword(), user.getPasswordHash())
+                .thenApplyAsync(check -> completePasswordLogin(user, check), loginCompletionExecutor);
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, String>>> completePasswordLogin(
+            User user, PasswordService.PasswordCheck check) {
+        if (!check.matches()) {
             return ResponseEntity.ok(ApiResponse.error("Mot de passe incorrect"));
         }
+        if (check.upgradedHash() != null) {
+            userRepository.updatePasswordHash(user.getId(), check.upgradedHash());
+        }
 
         // Mot de passe correct : générer et envoyer l'OTP
-        String otpCode = otpService.generateOTP();
-        user.setOtpCode(otpCode);
-        user.setOtpExpiresAt(otpService.getExpiryTime());
-        userRepository.save(user);
+        String otpCode = otpService.issueOTP(user.getEmail());
 
         try {
             emailService.sendOTP(user.getEmail(), otpCode);
@@ -240,8 +267,7 @@ public class AuthController {
 
     @PostMapping("/admin/request-otp")
     public ResponseEntity<ApiResponse<Map<String, String>>> requestOTPForAdmin(
-            @Valid @RequestBody LoginInitiateDTO request,
-            HttpSession session) {
+            @Valid @RequestBody LoginInitiateDTO request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
 
@@ -249,10 +275,7 @@ public class AuthController {
             return ResponseEntity.ok(ApiResponse.error("Cette fonctionnalité est réservée aux administrateurs"));
         }
 
-        String otpCode = otpService.generateOTP();
-        user.setOtpCode(otpCode);
-        user.setOtpExpiresAt(otpService.getExpiryTime());
-        userRepository.save(user);
+        String otpCode = otpService.issueOTP(user.getEmail());
 
         emailService.sendOTP(user.getEmail(), otpCode);
 
@@ -261,8 +284,15 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Object>> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<ApiResponse<Object>> logout(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(SessionAuthenticationFilter.BEARER_PREFIX)) {
+            sessionTokenService.revoke(authorization.substring(SessionAuthenticationFilter.BEARER_PREFIX.length()));
+        }
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         return ResponseEntity.ok(ApiResponse.success("Déconnexion réussie"));
     }
 }
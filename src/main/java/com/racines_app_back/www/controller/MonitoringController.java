@@ -0,0 +1,49 @@
+package com.racines_app_back.www.controller;
+
+import com.racines_app_back.www.domain.dto.ApiResponse;
+import com.racines_app_back.www.service.CurrentUserService;
+import com.racines_app_back.www.service.PermissionService;
+import com.racines_app_back.www.service.mail.EmailOutboxService;
+import com.racines_app_back.www.service.ratelimit.AuthRateLimiter;
+import com.racines_app_back.www.util.BrevoTransport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class MonitoringController {
+
+    private final AuthRateLimiter authRateLimiter;
+    private final EmailOutboxService emailOutboxService;
+    private final BrevoTransport brevoTransport;
+    private final PermissionService permissionService;
+    private final CurrentUserService currentUserService;
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getRateLimitRejections() {
+        UUID userId = currentUserService.getCurrentUserId();
+        permissionService.validateSuperAdmin(userId);
+        return ResponseEntity.ok(ApiResponse.success(authRateLimiter.getRejections()));
+    }
+
+    @GetMapping("/email-outbox")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getEmailOutboxCounts() {
+        UUID userId = currentUserService.getCurrentUserId();
+        permissionService.validateSuperAdmin(userId);
+        return ResponseEntity.ok(ApiResponse.success(emailOutboxService.getCounts()));
+    }
+
+    @GetMapping("/email-transport")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getEmailTransportStatus() {
+        UUID userId = currentUserService.getCurrentUserId();
+        permissionService.validateSuperAdmin(userId);
+        return ResponseEntity.ok(ApiResponse.success(brevoTransport.getStatus()));
+    }
+}
@@ -1,7 +1,10 @@
 package com.racines_app_back.www.controller;
 
 import com.racines_app_back.www.domain.dto.ApiResponse;
+import com.racines_app_back.www.domain.dto.FamilyGenerationsDTO;
 import com.racines_app_back.www.domain.dto.FamilyTreeDTO;
+import com.racines_app_back.www.domain.dto.KinshipDTO;
+import com.racines_app_back.www.domain.dto.LineageNodeDTO;
 import com.racines_app_back.www.domain.dto.PersonCreateDTO;
 import com.racines_app_back.www.domain.dto.PersonDTO;
 import com.racines_app_back.www.domain.dto.PersonUpdateDTO;
@@ -9,7 +12,9 @@ import com.racines_app_back.www.domain.dto.RelationshipDTO;
 import com.racines_app_back.www.domain.enums.RelationshipType;
 import com.racines_app_back.www.service.CurrentUserService;
 import com.racines_app_back.www.service.FamilyTreeExportService;
+import com.racines_app_back.www.service.KinshipService;
 import com.racines_app_back.www.service.PersonService;
+import com.racines_app_back.www.service.PublicTreeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ByteArrayResource;
@@ -22,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -32,14 +38,14 @@ public class PersonController {
     private final PersonService personService;
     private final CurrentUserService currentUserService;
     private final FamilyTreeExportService familyTreeExportService;
+    private final PublicTreeService publicTreeService;
+    private final KinshipService kinshipService;
 
     @GetMapping("/public/tree")
-    public ResponseEntity<ApiResponse<FamilyTreeDTO>> getPublicTree() {
-        FamilyTreeDTO familyTree = personService.getPublicTree();
-        if (familyTree == null) {
-            return ResponseEntity.ok(ApiResponse.error("Aucun arbre public disponible"));
-        }
-        return ResponseEntity.ok(ApiResponse.success(familyTree));
+    public ResponseEntity<byte[]> getPublicTree() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(publicTreeService.getSnapshot().json());
     }
 
     @GetMapping("/{id}")
@@ -56,6 +62,16 @@ public class PersonController {
         return ResponseEntity.ok(ApiResponse.success(familyTree));
     }
 
+    @GetMapping("/{id}/family-tree/generations")
+    public ResponseEntity<ApiResponse<FamilyGenerationsDTO>> getFamilyTreeGenerations(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "2") int up,
+            @RequestParam(defaultValue = "0") int down) {
+        UUID userId = currentUserService.getCurrentUserId();
+        FamilyGenerationsDTO familyTree = personService.getFamilyTree(id, userId, up, down);
+        return ResponseEntity.ok(ApiResponse.success(familyTree));
+    }
+
     @GetMapping("/{id}/family-tree/export")
     public ResponseEntity<Resource> exportFamilyTree(@PathVariable UUID id) throws IOException {
         UUID userId = currentUserService.getCurrentUserId();
@@ -119,4 +135,38 @@ public class PersonController {
         List<PersonDTO> descendants = personService.getDescendants(id, userId, maxDepth);
         return ResponseEntity.ok(ApiResponse.success(descendants));
     }
+
+    @GetMapping("/{id}/descendants/generations")
+    public ResponseEntity<ApiResponse<List<LineageNodeDTO>>> getDescendantGenerations(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "5") int maxDepth) {
+        UUID userId = currentUserService.getCurrentUserId();
+        List<LineageNodeDTO> descendants = personService.getDescendantGenerations(id, userId, maxDepth);
+        return ResponseEntity.ok(ApiResponse.success(descendants));
+    }
+
+    @GetMapping("/{id}/ancestors/{ancestorId}/check")
+    public ResponseEntity<ApiResponse<Boolean>> isAncestor(
+            @PathVariable UUID id,
+            @PathVariable UUID ancestorId) {
+        UUID userId = currentUserService.getCurrentUserId();
+        boolean ancestor = personService.isAncestor(ancestorId, id, userId);
+        return ResponseEntity.ok(ApiResponse.success(ancestor));
+    }
+
+    @GetMapping("/{id}/lineage/counts")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getLineageCounts(@PathVariable UUID id) {
+        UUID userId = currentUserService.getCurrentUserId();
+        Map<String, Long> counts = personService.getLineageCounts(id, userId);
+        return ResponseEntity.ok(ApiResponse.success(counts));
+    }
+
+    @GetMapping("/{id}/kinship/{relatedPersonId}")
+    public ResponseEntity<ApiResponse<KinshipDTO>> getKinship(
+            @PathVariable UUID id,
+            @PathVariable UUID relatedPersonId) {
+        UUID userId = currentUserService.getCurrentUserId();
+        KinshipDTO kinship = kinshipService.findKinship(id, relatedPersonId, userId);
+        return ResponseEntity.ok(ApiResponse.success(kinship));
+    }
 }
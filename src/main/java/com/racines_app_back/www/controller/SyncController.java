@@ -33,6 +33,15 @@ public class SyncController {
                 .body(ApiResponse.success("Opération ajoutée à la queue", operation));
     }
 
+    @PostMapping("/queue/batch")
+    public ResponseEntity<ApiResponse<List<SyncOperationDTO>>> queueOperations(
+            @RequestBody List<SyncOperationCreateDTO> dtos) {
+        UUID userId = currentUserService.getCurrentUserId();
+        List<SyncOperationDTO> operations = syncService.queueOperations(dtos, userId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Opérations ajoutées à la queue", operations));
+    }
+
     @PostMapping("/execute")
     public ResponseEntity<ApiResponse<List<SyncOperationDTO>>> executeSync() {
         UUID userId = currentUserService.getCurrentUserId();
@@ -0,0 +1,22 @@
+package com.racines_app_back.www.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Générations indexées par leur distance à la personne : 1 = parents / enfants, 2 = grands-parents / petits-enfants...
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FamilyGenerationsDTO {
+    private PersonDTO person;
+    private Map<Integer, List<PersonDTO>> ancestors;
+    private Map<Integer, List<PersonDTO>> descendants;
+    private List<PersonDTO> siblings;
+    private List<RelationshipDTO> relationships;
+}
@@ -0,0 +1,24 @@
+package com.racines_app_back.www.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipDTO {
+    private UUID personId;
+    private UUID relatedPersonId;
+    private boolean related;
+    private String label;
+    private Integer distance;
+    private List<KinshipStepDTO> path;
+    private List<PersonDTO> commonAncestors;
+    private boolean searchExhausted;
+}
@@ -0,0 +1,21 @@
+package com.racines_app_back.www.domain.dto;
+
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipStepDTO {
+    private UUID personId;
+    private PersonDTO person;
+    private RelationshipType relationshipType;
+    private boolean inverse;
+    private boolean hidden;
+}
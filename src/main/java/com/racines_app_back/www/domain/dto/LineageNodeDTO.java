@@ -0,0 +1,18 @@
+package com.racines_app_back.www.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineageNodeDTO {
+    private PersonDTO person;
+    private Integer generation;
+    private UUID parentId;
+}
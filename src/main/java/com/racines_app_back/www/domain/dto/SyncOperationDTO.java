@@ -24,6 +24,7 @@ public class SyncOperationDTO {
     private String payload;
     private SyncStatus status;
     private String errorMessage;
+    private String result;
     private Integer retryCount;
     private LocalDateTime createdAt;
     private LocalDateTime syncedAt;
@@ -0,0 +1,24 @@
+package com.racines_app_back.www.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "ancestor_closure", indexes = {
+    @Index(name = "idx_closure_descendant", columnList = "descendant_id, depth")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AncestorClosure {
+
+    @EmbeddedId
+    private AncestorClosureId id;
+
+    @Column(nullable = false)
+    private Integer depth;
+}
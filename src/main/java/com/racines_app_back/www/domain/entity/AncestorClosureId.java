@@ -0,0 +1,23 @@
+package com.racines_app_back.www.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AncestorClosureId implements Serializable {
+
+    @Column(name = "ancestor_id", nullable = false)
+    private UUID ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private UUID descendantId;
+}
@@ -53,6 +53,9 @@ public class SyncQueue {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
     @Column(name = "retry_count")
     @Builder.Default
     private Integer retryCount = 0;
@@ -52,12 +52,6 @@ public class User {
     @Column(name = "password_hash")
     private String passwordHash;
 
-    @Column(name = "otp_code")
-    private String otpCode;
-
-    @Column(name = "otp_expires_at")
-    private LocalDateTime otpExpiresAt;
-
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -0,0 +1,6 @@
+package com.racines_app_back.www.domain.enums;
+
+public enum AdminNotificationType {
+    PROFILE_CLAIM,
+    VALIDATION_REQUEST
+}
@@ -0,0 +1,7 @@
+package com.racines_app_back.www.domain.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
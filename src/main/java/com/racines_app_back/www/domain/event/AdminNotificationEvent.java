@@ -0,0 +1,9 @@
+package com.racines_app_back.www.domain.event;
+
+import com.racines_app_back.www.domain.enums.AdminNotificationType;
+
+import java.time.LocalDateTime;
+
+public record AdminNotificationEvent(AdminNotificationType type, String actorName, String personName,
+                                     LocalDateTime occurredAt) {
+}
@@ -0,0 +1,6 @@
+package com.racines_app_back.www.domain.event;
+
+import java.util.UUID;
+
+public record PersonPublishedEvent(UUID personId) {
+}
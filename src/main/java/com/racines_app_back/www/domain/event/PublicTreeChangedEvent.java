@@ -0,0 +1,7 @@
+package com.racines_app_back.www.domain.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+public record PublicTreeChangedEvent(Set<UUID> personIds, boolean publicPersonTouched) {
+}
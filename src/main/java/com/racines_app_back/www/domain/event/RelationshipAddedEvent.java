@@ -0,0 +1,10 @@
+package com.racines_app_back.www.domain.event;
+
+import com.racines_app_back.www.domain.enums.RelationshipType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record RelationshipAddedEvent(UUID person1Id, UUID person2Id, RelationshipType relationshipType,
+                                     LocalDateTime createdAt) {
+}
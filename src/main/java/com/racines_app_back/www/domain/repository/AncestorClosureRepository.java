@@ -0,0 +1,53 @@
+package com.racines_app_back.www.domain.repository;
+
+import com.racines_app_back.www.domain.entity.AncestorClosure;
+import com.racines_app_back.www.domain.entity.AncestorClosureId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface AncestorClosureRepository extends JpaRepository<AncestorClosure, AncestorClosureId> {
+
+    @Query("SELECT COUNT(ac) FROM AncestorClosure ac WHERE ac.id.ancestorId = :personId")
+    long countDescendants(@Param("personId") UUID personId);
+
+    @Query("SELECT COUNT(ac) FROM AncestorClosure ac WHERE ac.id.descendantId = :personId")
+    long countAncestors(@Param("personId") UUID personId);
+
+    // Relie chaque ancêtre du parent (et le parent) à chaque descendant de l'enfant (et l'enfant)
+    @Modifying
+    @Query(value = "INSERT INTO ancestor_closure (ancestor_id, descendant_id, depth) " +
+           "SELECT a.ancestor_id, d.descendant_id, MIN(a.depth + d.depth + 1) FROM " +
+           "  (SELECT ancestor_id, depth FROM ancestor_closure WHERE descendant_id = :parentId " +
+           "   UNION ALL SELECT CAST(:parentId AS uuid), 0) a " +
+           "CROSS JOIN " +
+           "  (SELECT descendant_id, depth FROM ancestor_closure WHERE ancestor_id = :childId " +
+           "   UNION ALL SELECT CAST(:childId AS uuid), 0) d " +
+           "WHERE a.ancestor_id <> d.descendant_id " +
+           "GROUP BY a.ancestor_id, d.descendant_id " +
+           "ON CONFLICT (ancestor_id, descendant_id) DO UPDATE SET depth = LEAST(ancestor_closure.depth, EXCLUDED.depth)",
+           nativeQuery = true)
+    int linkParentage(@Param("parentId") UUID parentId, @Param("childId") UUID childId);
+
+    // Reconstruction complète depuis family_relationships, dans les deux encodages de la filiation
+    @Modifying
+    @Query(value = "WITH RECURSIVE parentage(parent_id, child_id) AS (" +
+           "  SELECT person2_id, person1_id FROM family_relationships WHERE relationship_type = 'PARENT' " +
+           "  UNION SELECT person1_id, person2_id FROM family_relationships WHERE relationship_type = 'CHILD'" +
+           "), closure(ancestor_id, descendant_id, depth) AS (" +
+           "  SELECT parent_id, child_id, 1 FROM parentage " +
+           "  UNION " +
+           "  SELECT c.ancestor_id, p.child_id, c.depth + 1 FROM closure c " +
+           "  JOIN parentage p ON p.parent_id = c.descendant_id WHERE c.depth < :maxDepth" +
+           ") " +
+           "INSERT INTO ancestor_closure (ancestor_id, descendant_id, depth) " +
+           "SELECT ancestor_id, descendant_id, MIN(depth) FROM closure " +
+           "WHERE ancestor_id <> descendant_id GROUP BY ancestor_id, descendant_id",
+           nativeQuery = true)
+    int rebuildFromRelationships(@Param("maxDepth") int maxDepth);
+}
@@ -0,0 +1,31 @@
+package com.racines_app_back.www.domain.repository;
+
+import com.racines_app_back.www.domain.entity.EmailOutbox;
+import com.racines_app_back.www.domain.enums.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    // SKIP LOCKED : plusieurs instances se partagent les lignes dues sans se bloquer
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+           "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox eo WHERE eo.status = :status AND eo.sentAt < :before")
+    int deleteByStatusBefore(@Param("status") EmailOutboxStatus status, @Param("before") LocalDateTime before);
+}
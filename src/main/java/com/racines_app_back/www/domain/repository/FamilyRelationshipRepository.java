@@ -2,11 +2,15 @@ package com.racines_app_back.www.domain.repository;
 
 import com.racines_app_back.www.domain.entity.FamilyRelationship;
 import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.repository.projection.LineageEdge;
+import com.racines_app_back.www.domain.repository.projection.RelationshipEdge;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,9 +22,17 @@ public interface FamilyRelationshipRepository extends JpaRepository<FamilyRelati
     
     @Query("SELECT fr FROM FamilyRelationship fr WHERE fr.person1Id = :personId OR fr.person2Id = :personId")
     List<FamilyRelationship> findAllRelationshipsByPersonId(@Param("personId") UUID personId);
+
+    @Query("SELECT fr FROM FamilyRelationship fr WHERE fr.person1Id IN :personIds OR fr.person2Id IN :personIds " +
+           "ORDER BY fr.createdAt")
+    List<FamilyRelationship> findAllRelationshipsByPersonIds(@Param("personIds") Collection<UUID> personIds);
     
     List<FamilyRelationship> findByPerson1IdAndRelationshipType(UUID personId, RelationshipType type);
     List<FamilyRelationship> findByPerson2IdAndRelationshipType(UUID personId, RelationshipType type);
+    List<FamilyRelationship> findByPerson1IdInAndRelationshipTypeOrderByCreatedAtAsc(
+        Collection<UUID> personIds, RelationshipType type
+    );
+    long countByRelationshipTypeIn(Collection<RelationshipType> types);
     
     @Query("SELECT fr FROM FamilyRelationship fr WHERE " +
            "(fr.person1Id = :person1Id AND fr.person2Id = :person2Id) OR " +
@@ -33,4 +45,29 @@ public interface FamilyRelationshipRepository extends JpaRepository<FamilyRelati
     Optional<FamilyRelationship> findByPerson1IdAndPerson2IdAndRelationshipType(
         UUID person1Id, UUID person2Id, RelationshipType type
     );
+
+    // Remonte toutes les arêtes PARENT jusqu'à maxDepth générations en une seule requête
+    @Query(value = "WITH RECURSIVE ancestors(person_id, related_id, depth, created_at) AS (" +
+           "  SELECT fr.person1_id, fr.person2_id, 1, fr.created_at FROM family_relationships fr " +
+           "  WHERE fr.person1_id = :personId AND fr.relationship_type = 'PARENT' " +
+           "  UNION " +
+           "  SELECT fr.person1_id, fr.person2_id, a.depth + 1, fr.created_at FROM family_relationships fr " +
+           "  JOIN ancestors a ON fr.person1_id = a.related_id " +
+           "  WHERE fr.relationship_type = 'PARENT' AND a.depth < :maxDepth" +
+           ") " +
+           "SELECT person_id AS personId, related_id AS relatedId, depth FROM ancestors " +
+           "ORDER BY depth, created_at",
+           nativeQuery = true)
+    List<LineageEdge> findAncestorEdges(@Param("personId") UUID personId, @Param("maxDepth") int maxDepth);
+
+    @Query("SELECT fr.person1Id AS person1Id, fr.person2Id AS person2Id, fr.relationshipType AS relationshipType " +
+           "FROM FamilyRelationship fr ORDER BY fr.createdAt")
+    List<RelationshipEdge> findAllEdges();
+
+    @Query("SELECT fr.person1Id AS person1Id, fr.person2Id AS person2Id, fr.relationshipType AS relationshipType " +
+           "FROM FamilyRelationship fr WHERE fr.createdAt >= :since ORDER BY fr.createdAt")
+    List<RelationshipEdge> findEdgesCreatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(fr.createdAt) FROM FamilyRelationship fr")
+    LocalDateTime findMaxCreatedAt();
 }
@@ -1,6 +1,7 @@
 package com.racines_app_back.www.domain.repository;
 
 import com.racines_app_back.www.domain.entity.Person;
+import com.racines_app_back.www.domain.repository.projection.PersonVisibility;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,4 +18,10 @@ public interface PersonRepository extends JpaRepository<Person, UUID> {
     
     @Query("SELECT p FROM Person p WHERE p.isPublic = true OR p.createdBy = :userId")
     List<Person> findPublicOrCreatedByUser(@Param("userId") UUID userId);
+
+    @Query("SELECT p.id AS id, p.isPublic AS isPublic FROM Person p")
+    List<PersonVisibility> findAllVisibility();
+
+    @Query("SELECT p.id FROM Person p WHERE p.createdBy = :userId")
+    List<UUID> findIdsByCreatedBy(@Param("userId") UUID userId);
 }
@@ -3,9 +3,11 @@ package com.racines_app_back.www.domain.repository;
 import com.racines_app_back.www.domain.entity.SyncQueue;
 import com.racines_app_back.www.domain.enums.SyncStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,8 +21,29 @@ public interface SyncQueueRepository extends JpaRepository<SyncQueue, UUID> {
     @Query("SELECT sq FROM SyncQueue sq WHERE sq.userId = :userId AND sq.status = 'PENDING' ORDER BY sq.createdAt ASC")
     List<SyncQueue> findPendingByUserIdOrderByCreatedAt(@Param("userId") UUID userId);
     
-    @Query("SELECT sq FROM SyncQueue sq WHERE sq.status = 'FAILED' AND sq.retryCount < :maxRetries")
-    List<SyncQueue> findFailedWithRetryLimit(@Param("maxRetries") int maxRetries);
+    // Opérations en attente après le curseur (created_at, id), verrouillées sans attendre :
+    // les lignes déjà réservées par une synchronisation concurrente sont sautées
+    @Query(value = "SELECT * FROM sync_queue WHERE user_id = :userId AND status = 'PENDING' " +
+           "AND (created_at, id) > (:afterCreatedAt, :afterId) " +
+           "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<SyncQueue> lockPendingAfter(@Param("userId") UUID userId, @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    // Même sélection sans verrou : voit aussi les lignes réservées par une autre synchronisation
+    @Query(value = "SELECT id FROM sync_queue WHERE user_id = :userId AND status = 'PENDING' " +
+           "AND (created_at, id) > (:afterCreatedAt, :afterId) " +
+           "ORDER BY created_at, id LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findPendingIdsAfter(@Param("userId") UUID userId, @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                   @Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncQueue sq SET sq.status = :pending, sq.retryCount = 0, sq.errorMessage = null " +
+           "WHERE sq.userId = :userId AND sq.status = :failed")
+    int requeueFailed(@Param("userId") UUID userId, @Param("failed") SyncStatus failed,
+                      @Param("pending") SyncStatus pending);
     
     @Query("SELECT COUNT(sq) FROM SyncQueue sq WHERE sq.userId = :userId AND sq.status = 'PENDING'")
     long countPendingByUserId(@Param("userId") UUID userId);
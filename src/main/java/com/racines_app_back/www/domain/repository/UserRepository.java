@@ -3,10 +3,13 @@ package com.racines_app_back.www.domain.repository;
 import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,7 +18,13 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     Optional<User> findByPersonId(UUID personId);
     boolean existsByEmail(String email);
+    List<User> findByRole(Role role);
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") Role role);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") UUID id, @Param("passwordHash") String passwordHash);
 }
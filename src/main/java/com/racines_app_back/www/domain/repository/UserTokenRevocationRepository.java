@@ -0,0 +1,35 @@
+package com.racines_app_back.www.domain.repository;
+
+import com.racines_app_back.www.domain.entity.UserTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserTokenRevocationRepository extends JpaRepository<UserTokenRevocation, UUID> {
+    List<UserTokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    // Deux changements concurrents pour le même utilisateur : la date la plus récente l'emporte
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_token_revocations (user_id, not_before, expires_at) " +
+           "VALUES (:userId, :notBefore, :expiresAt) " +
+           "ON CONFLICT (user_id) DO UPDATE SET " +
+           "not_before = GREATEST(user_token_revocations.not_before, EXCLUDED.not_before), " +
+           "expires_at = GREATEST(user_token_revocations.expires_at, EXCLUDED.expires_at)",
+           nativeQuery = true)
+    int revokeBefore(@Param("userId") UUID userId, @Param("notBefore") LocalDateTime notBefore,
+                     @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserTokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.racines_app_back.www.domain.repository.projection;
+
+import java.util.UUID;
+
+public interface LineageEdge {
+    UUID getPersonId();
+    UUID getRelatedId();
+    Integer getDepth();
+}
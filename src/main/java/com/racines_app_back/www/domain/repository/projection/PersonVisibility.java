@@ -0,0 +1,8 @@
+package com.racines_app_back.www.domain.repository.projection;
+
+import java.util.UUID;
+
+public interface PersonVisibility {
+    UUID getId();
+    Boolean getIsPublic();
+}
@@ -0,0 +1,11 @@
+package com.racines_app_back.www.domain.repository.projection;
+
+import com.racines_app_back.www.domain.enums.RelationshipType;
+
+import java.util.UUID;
+
+public interface RelationshipEdge {
+    UUID getPerson1Id();
+    UUID getPerson2Id();
+    RelationshipType getRelationshipType();
+}
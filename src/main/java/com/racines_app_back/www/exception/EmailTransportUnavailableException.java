@@ -0,0 +1,7 @@
+package com.racines_app_back.www.exception;
+
+public class EmailTransportUnavailableException extends RuntimeException {
+    public EmailTransportUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.racines_app_back.www.exception;
 
 import com.racines_app_back.www.domain.dto.ApiResponse;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -36,6 +37,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // Pool de fin de connexion saturé
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTaskRejected(TaskRejectedException ex) {
+        return buildErrorResponse("Service momentanément saturé, veuillez réessayer dans quelques instants",
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidation(ValidationException ex) {
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
@@ -0,0 +1,7 @@
+package com.racines_app_back.www.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
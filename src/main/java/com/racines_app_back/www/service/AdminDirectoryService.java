@@ -0,0 +1,69 @@
+package com.racines_app_back.www.service;
+
+import com.racines_app_back.www.domain.entity.User;
+import com.racines_app_back.www.domain.enums.Role;
+import com.racines_app_back.www.domain.event.PublicTreeChangedEvent;
+import com.racines_app_back.www.domain.event.UserRoleChangedEvent;
+import com.racines_app_back.www.domain.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AdminDirectoryService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile List<AdminContact> admins;
+
+    public record AdminContact(UUID userId, String email, UUID personId) {
+    }
+
+    public List<AdminContact> getAdmins() {
+        List<AdminContact> current = admins;
+        return current != null ? current : refresh();
+    }
+
+    public List<String> getAdminEmails() {
+        return getAdmins().stream().map(AdminContact::email).toList();
+    }
+
+    // Personne racine de l'arbre public : celle du plus ancien administrateur qui en a une
+    public Optional<UUID> getRootPersonId() {
+        return getAdmins().stream()
+                .map(AdminContact::personId)
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        Optional<UUID> previousRoot = admins != null ? getRootPersonId() : Optional.empty();
+        refresh();
+        if (!previousRoot.equals(getRootPersonId())) {
+            eventPublisher.publishEvent(new PublicTreeChangedEvent(Set.of(), true));
+        }
+    }
+
+    public synchronized List<AdminContact> refresh() {
+        List<AdminContact> loaded = userRepository.findByRole(Role.SUPER_ADMIN).stream()
+                .sorted(Comparator.comparing(User::getCreatedAt))
+                .map(user -> new AdminContact(user.getId(), user.getEmail(), user.getPersonId()))
+                .toList();
+        admins = loaded;
+        log.debug("Annuaire des administrateurs rechargé: {} administrateur(s)", loaded.size());
+        return loaded;
+    }
+}
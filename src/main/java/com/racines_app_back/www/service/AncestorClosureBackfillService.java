@@ -0,0 +1,41 @@
+package com.racines_app_back.www.service;
+
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.repository.AncestorClosureRepository;
+import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AncestorClosureBackfillService implements CommandLineRunner {
+
+    private final AncestorClosureRepository closureRepository;
+    private final FamilyRelationshipRepository relationshipRepository;
+    private final AncestorClosureService closureService;
+
+    @Override
+    public void run(String... args) {
+        backfillAncestorClosure();
+    }
+
+    // Les relations antérieures à la table de fermeture n'y figurent pas : reconstruction unique au démarrage
+    private void backfillAncestorClosure() {
+        if (closureRepository.count() > 0) {
+            log.debug("Fermeture de filiation déjà alimentée. Aucun rattrapage nécessaire.");
+            return;
+        }
+        long parentage = relationshipRepository.countByRelationshipTypeIn(
+                List.of(RelationshipType.PARENT, RelationshipType.CHILD));
+        if (parentage == 0) {
+            return;
+        }
+        log.info("Rattrapage de la fermeture de filiation à partir de {} relations", parentage);
+        closureService.rebuild();
+    }
+}
@@ -0,0 +1,86 @@
+package com.racines_app_back.www.service;
+
+import com.racines_app_back.www.domain.entity.AncestorClosureId;
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.repository.AncestorClosureRepository;
+import com.racines_app_back.www.exception.InvalidRelationshipException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional
+public class AncestorClosureService {
+
+    private final AncestorClosureRepository closureRepository;
+
+    @Value("${app.closure.max-depth:64}")
+    private int maxDepth;
+
+    // Refuse une filiation déjà déclarée dans l'autre encodage ou qui ferait de quelqu'un son propre ancêtre
+    @Transactional(readOnly = true)
+    public void validateRelationship(UUID person1Id, UUID person2Id, RelationshipType type) {
+        UUID parentId;
+        UUID childId;
+        switch (type) {
+            case PARENT -> {
+                parentId = person2Id;
+                childId = person1Id;
+            }
+            case CHILD -> {
+                parentId = person1Id;
+                childId = person2Id;
+            }
+            default -> {
+                return;
+            }
+        }
+
+        if (closureRepository.existsById(new AncestorClosureId(childId, parentId))) {
+            throw new InvalidRelationshipException("Cette relation créerait un cycle : la personne désignée comme parent est déjà descendante de l'enfant");
+        }
+        closureRepository.findById(new AncestorClosureId(parentId, childId))
+                .filter(closure -> closure.getDepth() == 1)
+                .ifPresent(closure -> {
+                    throw new InvalidRelationshipException("Cette relation existe déjà");
+                });
+    }
+
+    // Appelé dans la transaction de création de la relation : la fermeture reste cohérente avec family_relationships
+    public void recordRelationship(UUID person1Id, UUID person2Id, RelationshipType type) {
+        switch (type) {
+            case PARENT -> closureRepository.linkParentage(person2Id, person1Id);
+            case CHILD -> closureRepository.linkParentage(person1Id, person2Id);
+            default -> {
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isAncestor(UUID ancestorId, UUID descendantId) {
+        return closureRepository.existsById(new AncestorClosureId(ancestorId, descendantId));
+    }
+
+    @Transactional(readOnly = true)
+    public long countAncestors(UUID personId) {
+        return closureRepository.countAncestors(personId);
+    }
+
+    @Transactional(readOnly = true)
+    public long countDescendants(UUID personId) {
+        return closureRepository.countDescendants(personId);
+    }
+
+    public int rebuild() {
+        closureRepository.deleteAllInBatch();
+        int rows = closureRepository.rebuildFromRelationships(maxDepth);
+        log.info("Fermeture de filiation reconstruite: {} couples ancêtre/descendant", rows);
+        return rows;
+    }
+}
@@ -3,6 +3,8 @@ package com.racines_app_back.www.service;
 import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.repository.UserRepository;
 import com.racines_app_back.www.exception.UserNotFoundException;
+import com.racines_app_back.www.service.security.UserCache;
+import com.racines_app_back.www.service.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,31 +18,33 @@ import java.util.UUID;
 public class CurrentUserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     public UUID getCurrentUserId() {
+        return getCurrentPrincipal().id();
+    }
+
+    public UserPrincipal getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication != null && authentication.isAuthenticated()) {
+            if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return principal;
+            }
+
             if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
                 String email = oauth2User.getAttribute("email");
                 if (email != null) {
-                    User user = userRepository.findByEmail(email)
-                            .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'email: " + email));
-                    return user.getId();
+                    return getPrincipalByEmail(email);
                 }
             }
             
             if (authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails userDetails) {
-                String email = userDetails.getUsername();
-                User user = userRepository.findByEmail(email)
-                        .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'email: " + email));
-                return user.getId();
+                return getPrincipalByEmail(userDetails.getUsername());
             }
 
             if (authentication.getPrincipal() instanceof String email) {
-                User user = userRepository.findByEmail(email)
-                        .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'email: " + email));
-                return user.getId();
+                return getPrincipalByEmail(email);
             }
         }
 
@@ -52,4 +56,9 @@ public class CurrentUserService {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
     }
+
+    private UserPrincipal getPrincipalByEmail(String email) {
+        return userCache.findByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'email: " + email));
+    }
 }
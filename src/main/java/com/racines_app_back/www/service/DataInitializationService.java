@@ -2,10 +2,12 @@ package com.racines_app_back.www.service;
 
 import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.enums.Role;
+import com.racines_app_back.www.domain.event.UserRoleChangedEvent;
 import com.racines_app_back.www.domain.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -23,6 +25,7 @@ public class DataInitializationService implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordService passwordService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void run(String... args) {
@@ -46,7 +49,8 @@ public class DataInitializationService implements CommandLineRunner {
                 .passwordHash(passwordHash)
                 .build();
 
-        userRepository.save(adminUser);
+        User saved = userRepository.save(adminUser);
+        eventPublisher.publishEvent(new UserRoleChangedEvent(saved.getId()));
         log.info("Administrateur initialisé avec succès: {} {}", ADMIN_PRENOM, ADMIN_NOM);
     }
 }
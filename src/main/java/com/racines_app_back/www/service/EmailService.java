@@ -1,28 +1,59 @@
 package com.racines_app_back.www.service;
 
+import com.racines_app_back.www.domain.enums.AdminNotificationType;
+import com.racines_app_back.www.domain.event.AdminNotificationEvent;
+import com.racines_app_back.www.service.mail.EmailOutboxService;
 import com.racines_app_back.www.util.BrevoEmailService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Les notifications passent par la file email_outbox, écrite dans la transaction de l'appelant ;
+// seuls les codes OTP sont envoyés directement par BrevoEmailService
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
     private final BrevoEmailService brevoEmailService;
+    private final EmailOutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.mail.admin-digest.enabled:false}")
+    private boolean adminDigestEnabled;
 
-    public void sendClaimNotification(String adminEmail, String claimantName, String personName) {
-        brevoEmailService.sendClaimNotification(adminEmail, claimantName, personName);
+    // Une ligne par administrateur, au contenu identique : le répartiteur les regroupe en une requête Brevo.
+    // En mode récapitulatif, la demande est ajoutée au prochain récapitulatif après validation de la transaction
+    public void sendClaimNotification(Collection<String> adminEmails, String claimantName, String personName) {
+        if (adminDigestEnabled) {
+            eventPublisher.publishEvent(new AdminNotificationEvent(
+                    AdminNotificationType.PROFILE_CLAIM, claimantName, personName, LocalDateTime.now()));
+            return;
+        }
+        for (String adminEmail : adminEmails) {
+            outboxService.enqueue(brevoEmailService.claimNotification(adminEmail, claimantName, personName));
+        }
     }
 
-    public void sendValidationRequest(String adminEmail, String requesterName, String personName) {
-        brevoEmailService.sendValidationRequest(adminEmail, requesterName, personName);
+    public void sendValidationRequest(Collection<String> adminEmails, String requesterName, String personName) {
+        if (adminDigestEnabled) {
+            eventPublisher.publishEvent(new AdminNotificationEvent(
+                    AdminNotificationType.VALIDATION_REQUEST, requesterName, personName, LocalDateTime.now()));
+            return;
+        }
+        for (String adminEmail : adminEmails) {
+            outboxService.enqueue(brevoEmailService.validationRequest(adminEmail, requesterName, personName));
+        }
     }
 
     public void sendApprovalNotification(String userEmail, String personName, boolean isClaim) {
-        brevoEmailService.sendApprovalNotification(userEmail, personName, isClaim);
+        outboxService.enqueue(brevoEmailService.approvalNotification(userEmail, personName, isClaim));
     }
 
     public void sendRejectionNotification(String userEmail, String personName, String reason, boolean isClaim) {
-        brevoEmailService.sendRejectionNotification(userEmail, personName, reason, isClaim);
+        outboxService.enqueue(brevoEmailService.rejectionNotification(userEmail, personName, reason, isClaim));
     }
 }
@@ -0,0 +1,232 @@
+package com.racines_app_back.www.service;
+
+import com.racines_app_back.www.domain.dto.KinshipDTO;
+import com.racines_app_back.www.domain.dto.KinshipStepDTO;
+import com.racines_app_back.www.domain.dto.PersonDTO;
+import com.racines_app_back.www.domain.entity.Person;
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.repository.PersonRepository;
+import com.racines_app_back.www.exception.InvalidRelationshipException;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.graph.FamilyGraphIndex;
+import com.racines_app_back.www.service.mapper.PersonMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class KinshipService {
+
+    private final FamilyGraphIndex graphIndex;
+    private final PersonRepository personRepository;
+    private final PermissionService permissionService;
+    private final PersonMapper personMapper;
+
+    @Value("${app.kinship.max-visited:50000}")
+    private int maxVisited;
+
+    @Value("${app.kinship.max-distance:16}")
+    private int maxDistance;
+
+    public KinshipDTO findKinship(UUID personId, UUID relatedPersonId, UUID userId) {
+        if (personId.equals(relatedPersonId)) {
+            throw new InvalidRelationshipException("Une personne ne peut pas être en relation avec elle-même");
+        }
+        permissionService.validateCanViewPersons(userId, List.of(personId, relatedPersonId));
+
+        if (!graphIndex.isReady()) {
+            throw new ValidationException("Le calcul de parenté est momentanément indisponible, veuillez réessayer");
+        }
+
+        FamilyGraphIndex.PathSearch search = graphIndex.shortestPath(personId, relatedPersonId, maxVisited, maxDistance);
+        if (search.steps().isEmpty()) {
+            return KinshipDTO.builder()
+                    .personId(personId)
+                    .relatedPersonId(relatedPersonId)
+                    .related(false)
+                    .path(List.of())
+                    .commonAncestors(List.of())
+                    .searchExhausted(search.exhausted())
+                    .build();
+        }
+
+        // Ancêtres communs les plus proches : somme minimale des générations de part et d'autre
+        Map<UUID, Integer> ancestors = graphIndex.ancestorDepths(personId, maxDistance, maxVisited);
+        Map<UUID, Integer> relatedAncestors = graphIndex.ancestorDepths(relatedPersonId, maxDistance, maxVisited);
+        List<UUID> nearestAncestors = new ArrayList<>();
+        int up = -1;
+        int down = -1;
+        int best = Integer.MAX_VALUE;
+        for (Map.Entry<UUID, Integer> entry : ancestors.entrySet()) {
+            Integer otherDepth = relatedAncestors.get(entry.getKey());
+            if (otherDepth == null) {
+                continue;
+            }
+            int sum = entry.getValue() + otherDepth;
+            if (sum < best) {
+                best = sum;
+                nearestAncestors.clear();
+                up = entry.getValue();
+                down = otherDepth;
+            }
+            if (sum == best) {
+                nearestAncestors.add(entry.getKey());
+            }
+        }
+
+        Set<UUID> personIds = new HashSet<>(nearestAncestors);
+        search.steps().forEach(step -> personIds.add(step.personId()));
+        Map<UUID, Person> personMap = personRepository.findAllById(personIds).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
+        Set<UUID> viewable = permissionService.filterViewable(userId, personMap.values());
+
+        List<KinshipStepDTO> path = visiblePath(search.steps(), viewable, personMap);
+        List<PersonDTO> commonAncestors = nearestAncestors.stream()
+                .filter(viewable::contains)
+                .map(id -> personMapper.toDTO(personMap.get(id)))
+                .collect(Collectors.toList());
+
+        String label = up >= 0 ? bloodLabel(up, down) : pathLabel(search.steps());
+
+        return KinshipDTO.builder()
+                .personId(personId)
+                .relatedPersonId(relatedPersonId)
+                .related(true)
+                .label(label)
+                .distance(search.steps().size())
+                .path(path)
+                .commonAncestors(commonAncestors)
+                .searchExhausted(false)
+                .build();
+    }
+
+    // Une suite d'étapes vers des personnes que l'appelant ne peut pas voir devient une seule étape anonyme,
+    // et l'étape visible qui la suit perd son type de relation : ni identifiant ni structure des personnes cachées
+    private List<KinshipStepDTO> visiblePath(List<FamilyGraphIndex.PathStep> steps, Set<UUID> viewable,
+                                             Map<UUID, Person> personMap) {
+        List<KinshipStepDTO> path = new ArrayList<>();
+        boolean afterHidden = false;
+        for (FamilyGraphIndex.PathStep step : steps) {
+            if (!viewable.contains(step.personId())) {
+                if (!afterHidden) {
+                    path.add(KinshipStepDTO.builder().hidden(true).build());
+                    afterHidden = true;
+                }
+                continue;
+            }
+            path.add(KinshipStepDTO.builder()
+                    .personId(step.personId())
+                    .person(personMapper.toDTO(personMap.get(step.personId())))
+                    .relationshipType(afterHidden ? null : step.relationshipType())
+                    .inverse(!afterHidden && step.reverse())
+                    .build());
+            afterHidden = false;
+        }
+        return path;
+    }
+
+    // Libellé de la personne liée vu depuis la personne de départ :
+    // up = générations jusqu'à l'ancêtre commun côté départ, down = côté personne liée
+    private String bloodLabel(int up, int down) {
+        if (up == 0) {
+            return down == 1 ? "enfant" : "arrière-".repeat(Math.max(0, down - 2)) + "petit-enfant";
+        }
+        if (down == 0) {
+            return up == 1 ? "parent" : "arrière-".repeat(Math.max(0, up - 2)) + "grand-parent";
+        }
+        if (up == 1 && down == 1) {
+            return "frère/sœur";
+        }
+        if (up == 1) {
+            return down == 2 ? "neveu/nièce" : "arrière-".repeat(down - 3) + "petit-neveu/petite-nièce";
+        }
+        if (down == 1) {
+            return up == 2 ? "oncle/tante" : "arrière-".repeat(up - 3) + "grand-oncle/grand-tante";
+        }
+        if (up == down) {
+            return switch (up) {
+                case 2 -> "cousin(e) germain(e)";
+                case 3 -> "cousin(e) issu(e) de germain";
+                case 4 -> "cousin(e) issu(e) d'issu(e) de germain";
+                default -> "cousin(e) éloigné(e)";
+            };
+        }
+        return "parent au " + (up + down) + "e degré";
+    }
+
+    // Sans ancêtre commun connu : déduit le lien des étapes du chemin (fratrie déclarée, alliance)
+    private String pathLabel(List<FamilyGraphIndex.PathStep> steps) {
+        if (steps.size() == 1 && steps.get(0).relationshipType() == RelationshipType.SPOUSE) {
+            return "conjoint(e)";
+        }
+
+        int spouseIndex = -1;
+        int up = 0;
+        int down = 0;
+        boolean blood = true;
+        for (int i = 0; i < steps.size(); i++) {
+            FamilyGraphIndex.PathStep step = steps.get(i);
+            if (step.relationshipType() == RelationshipType.SPOUSE) {
+                if (spouseIndex >= 0) {
+                    return "allié(e)";
+                }
+                spouseIndex = i;
+                continue;
+            }
+            int[] generations = generations(step);
+            if (down > 0 && generations[0] > 0) {
+                blood = false;
+            }
+            up += generations[0];
+            down += generations[1];
+        }
+
+        if (!blood) {
+            return "apparenté(e)";
+        }
+        if (spouseIndex < 0) {
+            return bloodLabel(up, down);
+        }
+        if (spouseIndex == steps.size() - 1) {
+            return bloodLabel(up, down) + " par alliance";
+        }
+        if (spouseIndex == 0 && up == 1 && down == 0) {
+            return "beau-parent";
+        }
+        if (spouseIndex == 0 && up == 1 && down == 1) {
+            return "beau-frère/belle-sœur";
+        }
+        return "allié(e)";
+    }
+
+    // Générations montées et descendues par une étape : {montée, descente}
+    private int[] generations(FamilyGraphIndex.PathStep step) {
+        int[] forward = switch (step.relationshipType()) {
+            case PARENT -> new int[]{1, 0};
+            case CHILD -> new int[]{0, 1};
+            case GRANDPARENT -> new int[]{2, 0};
+            case GRANDCHILD -> new int[]{0, 2};
+            case UNCLE_AUNT -> new int[]{2, 1};
+            case NEPHEW_NIECE -> new int[]{1, 2};
+            case COUSIN -> new int[]{2, 2};
+            case SIBLING -> new int[]{1, 1};
+            case SPOUSE -> new int[]{0, 0};
+        };
+        if (!step.reverse()) {
+            return forward;
+        }
+        // Relation enregistrée dans l'autre sens : la montée devient descente et inversement
+        return new int[]{forward[1], forward[0]};
+    }
+}
@@ -1,33 +1,36 @@
 package com.racines_app_back.www.service;
 
+import com.racines_app_back.www.service.otp.OtpStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
+import java.time.Duration;
 
 @Service
+@RequiredArgsConstructor
 public class OTPService {
-    private static final int OTP_LENGTH = 6;
-    private static final int OTP_EXPIRY_MINUTES = 10;
     private static final SecureRandom random = new SecureRandom();
 
+    private final OtpStore otpStore;
+
+    @Value("${app.otp.ttl:PT10M}")
+    private Duration otpTtl;
+
     public String generateOTP() {
         int otp = 100000 + random.nextInt(900000);
         return String.valueOf(otp);
     }
 
-    public LocalDateTime getExpiryTime() {
-        return LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES);
-    }
-
-    public boolean isOTPValid(String storedOTP, LocalDateTime expiryTime) {
-        if (storedOTP == null || expiryTime == null) {
-            return false;
-        }
-        return LocalDateTime.now().isBefore(expiryTime);
+    // Génère un nouveau code pour l'adresse et remplace le précédent
+    public String issueOTP(String email) {
+        String otp = generateOTP();
+        otpStore.put(email, otp, otpTtl);
+        return otp;
     }
 
-    public boolean verifyOTP(String inputOTP, String storedOTP, LocalDateTime expiryTime) {
-        return isOTPValid(storedOTP, expiryTime) && storedOTP.equals(inputOTP);
+    public boolean verifyOTP(String email, String inputOTP) {
+        return otpStore.verify(email, inputOTP);
     }
 }
@@ -1,12 +1,32 @@
 package com.racines_app_back.www.service;
 
+import com.racines_app_back.www.exception.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class PasswordService {
-    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolTaskExecutor passwordExecutor;
+
+    // Résultat d'une vérification : nouvelle empreinte à enregistrer si le coût stocké diffère du coût configuré
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    public PasswordService(@Value("${app.password.bcrypt-strength:10}") int strength,
+                           @Qualifier("passwordExecutor") ThreadPoolTaskExecutor passwordExecutor) {
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.passwordExecutor = passwordExecutor;
+    }
 
     public String encodePassword(String rawPassword) {
         return passwordEncoder.encode(rawPassword);
@@ -18,4 +38,29 @@ public class PasswordService {
         }
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
+
+    // BCrypt hors des threads de requête ; file pleine : refus immédiat plutôt qu'une attente illimitée
+    public CompletableFuture<PasswordCheck> checkAsync(String rawPassword, String encodedPassword) {
+        try {
+            return passwordExecutor.submitCompletable(() -> {
+                boolean matches = matches(rawPassword, encodedPassword);
+                String upgradedHash = matches && needsRehash(encodedPassword) ? encodePassword(rawPassword) : null;
+                return new PasswordCheck(matches, upgradedHash);
+            });
+        } catch (TaskRejectedException e) {
+            throw new RateLimitExceededException("Trop de connexions en cours, veuillez réessayer dans quelques instants");
+        }
+    }
+
+    // Format $2a$10$... : le coût occupe les deux chiffres après le préfixe de version
+    private boolean needsRehash(String encodedPassword) {
+        if (encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
@@ -1,68 +1,70 @@
 package com.racines_app_back.www.service;
 
 import com.racines_app_back.www.domain.entity.Person;
-import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.enums.Role;
-import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
 import com.racines_app_back.www.domain.repository.PersonRepository;
-import com.racines_app_back.www.domain.repository.UserRepository;
 import com.racines_app_back.www.exception.PermissionDeniedException;
-import com.racines_app_back.www.exception.UserNotFoundException;
+import com.racines_app_back.www.service.security.UserCache;
+import com.racines_app_back.www.service.security.UserPrincipal;
+import com.racines_app_back.www.service.visibility.FamilyCircle;
+import com.racines_app_back.www.service.visibility.PersonVisibilityIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class PermissionService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final PersonRepository personRepository;
-    private final FamilyRelationshipRepository relationshipRepository;
+    private final PersonVisibilityIndex visibilityIndex;
+    private final FamilyCircle familyCircle;
 
     public boolean hasSuperAdminRole(UUID userId) {
-        User user = getUserById(userId);
-        return user.getRole() == Role.SUPER_ADMIN;
+        UserPrincipal user = getUserById(userId);
+        return user.role() == Role.SUPER_ADMIN;
     }
 
     public boolean canViewPerson(UUID userId, UUID personId) {
-        User user = getUserById(userId);
-        Person person = getPersonById(personId);
-        
-        if (isSuperAdmin(user)) {
-            return true;
-        }
-        
-        // Personnes publiques sont visibles par tous
-        if (person.getIsPublic()) {
-            return true;
-        }
-        
-        // L'utilisateur peut voir les personnes qu'il a créées
-        if (person.getCreatedBy() != null && person.getCreatedBy().equals(userId)) {
+        if (visibilityIndex.isVisible(userId, personId)) {
             return true;
         }
+
+        UserPrincipal user = getUserById(userId);
+        Person person = getPersonById(personId);
         
-        // L'utilisateur peut voir sa propre personne liée
-        if (user.getPersonId() != null && user.getPersonId().equals(personId)) {
+        if (isDirectlyVisible(user, person)) {
             return true;
         }
         
-        // L'utilisateur peut voir les personnes liées à sa personne (famille proche)
-        if (user.getPersonId() != null) {
-            return relationshipRepository.findAllRelationshipsByPersonId(user.getPersonId())
-                    .stream()
-                    .anyMatch(rel -> rel.getPerson1Id().equals(personId) || rel.getPerson2Id().equals(personId));
+        // L'utilisateur peut voir sa famille jusqu'au rayon de visibilité configuré
+        return user.personId() != null && familyCircle.around(user.personId()).contains(personId);
+    }
+
+    // Visibilité d'un lot d'identifiants : un chargement de l'utilisateur, un des personnes, un de la famille proche
+    public Set<UUID> canViewPersons(UUID userId, Collection<UUID> personIds) {
+        UserPrincipal user = getUserById(userId);
+        if (personIds.isEmpty()) {
+            return new HashSet<>();
         }
-        
-        return false;
+        return viewableAmong(user, personRepository.findAllById(new HashSet<>(personIds)));
+    }
+
+    // Filtre un lot de personnes déjà chargées : un seul chargement de l'utilisateur et de sa famille proche
+    public Set<UUID> filterViewable(UUID userId, Collection<Person> persons) {
+        return viewableAmong(getUserById(userId), persons);
     }
 
     public boolean canEditPerson(UUID userId, UUID personId) {
-        User user = getUserById(userId);
+        UserPrincipal user = getUserById(userId);
         
         if (isSuperAdmin(user)) {
             return true;
@@ -71,12 +73,12 @@ public class PermissionService {
         getPersonById(personId);
         
         // L'utilisateur peut modifier sa propre personne liée
-        return user.getPersonId() != null && user.getPersonId().equals(personId);
+        return user.personId() != null && user.personId().equals(personId);
     }
 
     public boolean canAddPerson(UUID userId) {
-        User user = getUserById(userId);
-        return user.getRole() == Role.SUPER_ADMIN || user.getRole() == Role.VALIDATED_USER;
+        UserPrincipal user = getUserById(userId);
+        return user.role() == Role.SUPER_ADMIN || user.role() == Role.VALIDATED_USER;
     }
 
     public void validateCanViewPerson(UUID userId, UUID personId) {
@@ -85,6 +87,12 @@ public class PermissionService {
         }
     }
 
+    public void validateCanViewPersons(UUID userId, Collection<UUID> personIds) {
+        if (!canViewPersons(userId, personIds).containsAll(personIds)) {
+            throw new PermissionDeniedException("Vous n'avez pas la permission de visualiser ces personnes");
+        }
+    }
+
     public void validateCanEditPerson(UUID userId, UUID personId) {
         if (!canEditPerson(userId, personId)) {
             throw new PermissionDeniedException("Vous n'avez pas la permission de modifier cette personne");
@@ -103,9 +111,8 @@ public class PermissionService {
         }
     }
 
-    private User getUserById(UUID userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé: " + userId));
+    private UserPrincipal getUserById(UUID userId) {
+        return userCache.getById(userId);
     }
 
     private Person getPersonById(UUID personId) {
@@ -113,7 +120,39 @@ public class PermissionService {
                 .orElseThrow(() -> new PermissionDeniedException("Personne non trouvée"));
     }
 
-    private boolean isSuperAdmin(User user) {
-        return user.getRole() == Role.SUPER_ADMIN;
+    private Set<UUID> viewableAmong(UserPrincipal user, Collection<Person> persons) {
+        if (isSuperAdmin(user)) {
+            return persons.stream().map(Person::getId).collect(Collectors.toSet());
+        }
+        
+        Set<UUID> closeFamily = user.personId() != null ? familyCircle.around(user.personId()) : Set.of();
+        
+        return persons.stream()
+                .filter(person -> isDirectlyVisible(user, person) || closeFamily.contains(person.getId()))
+                .map(Person::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private boolean isDirectlyVisible(UserPrincipal user, Person person) {
+        if (isSuperAdmin(user)) {
+            return true;
+        }
+        
+        // Personnes publiques sont visibles par tous
+        if (person.getIsPublic()) {
+            return true;
+        }
+        
+        // L'utilisateur peut voir les personnes qu'il a créées
+        if (person.getCreatedBy() != null && person.getCreatedBy().equals(user.id())) {
+            return true;
+        }
+        
+        // L'utilisateur peut voir sa propre personne liée
+        return user.personId() != null && user.personId().equals(person.getId());
+    }
+
+    private boolean isSuperAdmin(UserPrincipal user) {
+        return user.role() == Role.SUPER_ADMIN;
     }
 }
@@ -1,6 +1,8 @@
 package com.racines_app_back.www.service;
 
+import com.racines_app_back.www.domain.dto.FamilyGenerationsDTO;
 import com.racines_app_back.www.domain.dto.FamilyTreeDTO;
+import com.racines_app_back.www.domain.dto.LineageNodeDTO;
 import com.racines_app_back.www.domain.dto.PersonCreateDTO;
 import com.racines_app_back.www.domain.dto.PersonDTO;
 import com.racines_app_back.www.domain.dto.PersonUpdateDTO;
@@ -8,19 +10,24 @@ import com.racines_app_back.www.domain.dto.RelationshipDTO;
 import com.racines_app_back.www.domain.entity.FamilyRelationship;
 import com.racines_app_back.www.domain.entity.Person;
 import com.racines_app_back.www.domain.enums.RelationshipType;
-import com.racines_app_back.www.domain.entity.User;
-import com.racines_app_back.www.domain.enums.Role;
+import com.racines_app_back.www.domain.event.PersonCreatedEvent;
+import com.racines_app_back.www.domain.event.PublicTreeChangedEvent;
+import com.racines_app_back.www.domain.event.RelationshipAddedEvent;
 import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
 import com.racines_app_back.www.domain.repository.PersonRepository;
-import com.racines_app_back.www.domain.repository.UserRepository;
+import com.racines_app_back.www.domain.repository.projection.LineageEdge;
 import com.racines_app_back.www.exception.InvalidRelationshipException;
 import com.racines_app_back.www.exception.PersonNotFoundException;
+import com.racines_app_back.www.service.graph.FamilyGraphIndex;
 import com.racines_app_back.www.service.mapper.PersonMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,9 +37,16 @@ public class PersonService {
 
     private final PersonRepository personRepository;
     private final FamilyRelationshipRepository relationshipRepository;
-    private final UserRepository userRepository;
     private final PermissionService permissionService;
     private final PersonMapper personMapper;
+    private final FamilyGraphIndex graphIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AncestorClosureService closureService;
+    private final AdminDirectoryService adminDirectoryService;
+
+    // Plafond des profondeurs demandées par les clients : requête récursive et boucles par génération
+    @Value("${app.lineage.max-depth:20}")
+    private int maxLineageDepth;
 
     public PersonDTO createPerson(PersonCreateDTO dto, UUID userId) {
         permissionService.validateCanAddPerson(userId);
@@ -48,6 +62,7 @@ public class PersonService {
                 .build();
 
         Person saved = personRepository.save(person);
+        eventPublisher.publishEvent(new PersonCreatedEvent(saved.getId(), saved.getCreatedBy(), Boolean.TRUE.equals(saved.getIsPublic())));
         return personMapper.toDTO(saved);
     }
 
@@ -61,75 +76,132 @@ public class PersonService {
     }
 
     public FamilyTreeDTO getFamilyTree(UUID personId, UUID userId) {
+        return toFamilyTreeDTO(getFamilyTree(personId, userId, 2, 0));
+    }
+
+    public FamilyGenerationsDTO getFamilyTree(UUID personId, UUID userId, int generationsUp, int generationsDown) {
         permissionService.validateCanViewPerson(userId, personId);
-        
-        Person person = personRepository.findById(personId)
-                .orElseThrow(() -> new PersonNotFoundException("Personne non trouvée: " + personId));
+        return assembleFamilyTree(personId, clampDepth(generationsUp), clampDepth(generationsDown),
+                persons -> permissionService.filterViewable(userId, persons));
+    }
 
-        List<FamilyRelationship> allRelationships = relationshipRepository.findAllRelationshipsByPersonId(personId);
-        
-        Set<UUID> relatedPersonIds = new HashSet<>();
-        relatedPersonIds.add(personId);
-        
-        for (FamilyRelationship rel : allRelationships) {
-            relatedPersonIds.add(rel.getPerson1Id());
-            relatedPersonIds.add(rel.getPerson2Id());
-        }
+    private FamilyTreeDTO toFamilyTreeDTO(FamilyGenerationsDTO tree) {
+        return FamilyTreeDTO.builder()
+                .person(tree.getPerson())
+                .parents(tree.getAncestors().getOrDefault(1, new ArrayList<>()))
+                .grandparents(tree.getAncestors().getOrDefault(2, new ArrayList<>()))
+                .siblings(tree.getSiblings())
+                .relationships(tree.getRelationships())
+                .build();
+    }
 
-        List<Person> relatedPersons = personRepository.findAllById(relatedPersonIds);
-        Map<UUID, Person> personMap = relatedPersons.stream()
-                .collect(Collectors.toMap(Person::getId, p -> p));
+    // Une requête de relations par génération (montée et descente regroupées), puis une seule hydratation des personnes
+    private FamilyGenerationsDTO assembleFamilyTree(UUID personId, int generationsUp, int generationsDown,
+                                                    Function<Collection<Person>, Set<UUID>> visibility) {
+        List<FamilyRelationship> rootRelationships = new ArrayList<>();
+        Map<Integer, List<UUID>> ancestorIds = new LinkedHashMap<>();
+        Map<Integer, List<UUID>> descendantIds = new LinkedHashMap<>();
+        Set<UUID> seenUp = new HashSet<>(Set.of(personId));
+        Set<UUID> seenDown = new HashSet<>(Set.of(personId));
+        Set<UUID> upFrontier = Set.of(personId);
+        Set<UUID> downFrontier = Set.of(personId);
+
+        int generations = Math.max(1, Math.max(generationsUp, generationsDown));
+        for (int generation = 1; generation <= generations; generation++) {
+            boolean climb = generation <= generationsUp && !upFrontier.isEmpty();
+            boolean descend = generation <= generationsDown && !downFrontier.isEmpty();
+            if (generation > 1 && !climb && !descend) {
+                break;
+            }
+
+            Set<UUID> batch = new HashSet<>();
+            if (generation == 1) {
+                batch.add(personId);
+            }
+            if (climb) {
+                batch.addAll(upFrontier);
+            }
+            if (descend) {
+                batch.addAll(downFrontier);
+            }
 
-        List<PersonDTO> parents = new ArrayList<>();
-        List<PersonDTO> grandparents = new ArrayList<>();
-        List<PersonDTO> siblings = new ArrayList<>();
-
-        for (FamilyRelationship rel : allRelationships) {
-            UUID otherPersonId = rel.getPerson1Id().equals(personId) ? rel.getPerson2Id() : rel.getPerson1Id();
-            Person otherPerson = personMap.get(otherPersonId);
-            
-            if (otherPerson != null) {
-                PersonDTO otherDTO = personMapper.toDTO(otherPerson);
-                
-                if (rel.getRelationshipType() == RelationshipType.PARENT) {
-                    parents.add(otherDTO);
-                } else if (rel.getRelationshipType() == RelationshipType.SIBLING) {
-                    siblings.add(otherDTO);
+            Set<UUID> nextUp = new LinkedHashSet<>();
+            Set<UUID> nextDown = new LinkedHashSet<>();
+            for (FamilyRelationship rel : relationshipRepository.findAllRelationshipsByPersonIds(batch)) {
+                if (generation == 1 && (rel.getPerson1Id().equals(personId) || rel.getPerson2Id().equals(personId))) {
+                    rootRelationships.add(rel);
                 }
+                UUID[] parentage = parentage(rel);
+                if (parentage == null) {
+                    continue;
+                }
+                if (climb && upFrontier.contains(parentage[1]) && seenUp.add(parentage[0])) {
+                    nextUp.add(parentage[0]);
+                }
+                if (descend && downFrontier.contains(parentage[0]) && seenDown.add(parentage[1])) {
+                    nextDown.add(parentage[1]);
+                }
+            }
+
+            if (climb) {
+                ancestorIds.put(generation, new ArrayList<>(nextUp));
+            }
+            if (descend) {
+                descendantIds.put(generation, new ArrayList<>(nextDown));
             }
+            upFrontier = climb ? nextUp : Set.of();
+            downFrontier = descend ? nextDown : Set.of();
         }
 
-        // Récupérer les grands-parents via les parents
-        for (PersonDTO parent : parents) {
-            List<FamilyRelationship> parentRelationships = relationshipRepository
-                    .findAllRelationshipsByPersonId(parent.getId());
-            for (FamilyRelationship rel : parentRelationships) {
-                if (rel.getRelationshipType() == RelationshipType.PARENT) {
-                    UUID grandparentId = rel.getPerson1Id().equals(parent.getId()) 
-                            ? rel.getPerson2Id() 
-                            : rel.getPerson1Id();
-                    Person grandparent = personMap.get(grandparentId);
-                    if (grandparent != null) {
-                        PersonDTO grandparentDTO = personMapper.toDTO(grandparent);
-                        if (!grandparents.contains(grandparentDTO)) {
-                            grandparents.add(grandparentDTO);
-                        }
-                    }
-                }
+        List<UUID> siblingIds = new ArrayList<>();
+        for (FamilyRelationship rel : rootRelationships) {
+            if (rel.getRelationshipType() == RelationshipType.SIBLING) {
+                siblingIds.add(rel.getPerson1Id().equals(personId) ? rel.getPerson2Id() : rel.getPerson1Id());
             }
         }
 
-        List<RelationshipDTO> relationships = personMapper.toRelationshipDTOList(allRelationships);
+        Set<UUID> personIds = new HashSet<>(siblingIds);
+        personIds.add(personId);
+        ancestorIds.values().forEach(personIds::addAll);
+        descendantIds.values().forEach(personIds::addAll);
+        Map<UUID, Person> personMap = personRepository.findAllById(personIds).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
+        Person person = personMap.get(personId);
+        if (person == null) {
+            throw new PersonNotFoundException("Personne non trouvée: " + personId);
+        }
+        Set<UUID> viewable = visibility.apply(personMap.values());
 
-        return FamilyTreeDTO.builder()
+        Map<Integer, List<PersonDTO>> ancestors = new LinkedHashMap<>();
+        ancestorIds.forEach((generation, ids) -> ancestors.put(generation, toViewableDTOs(ids, personMap, viewable)));
+        Map<Integer, List<PersonDTO>> descendants = new LinkedHashMap<>();
+        descendantIds.forEach((generation, ids) -> descendants.put(generation, toViewableDTOs(ids, personMap, viewable)));
+
+        return FamilyGenerationsDTO.builder()
                 .person(personMapper.toDTO(person))
-                .parents(parents)
-                .grandparents(grandparents)
-                .siblings(siblings)
-                .relationships(relationships)
+                .ancestors(ancestors)
+                .descendants(descendants)
+                .siblings(toViewableDTOs(siblingIds, personMap, viewable))
+                .relationships(personMapper.toRelationshipDTOList(rootRelationships))
                 .build();
     }
 
+    // Filiation portée par une relation, quel que soit l'encodage : {parent, enfant}
+    private UUID[] parentage(FamilyRelationship rel) {
+        return switch (rel.getRelationshipType()) {
+            case PARENT -> new UUID[]{rel.getPerson2Id(), rel.getPerson1Id()};
+            case CHILD -> new UUID[]{rel.getPerson1Id(), rel.getPerson2Id()};
+            default -> null;
+        };
+    }
+
+    private List<PersonDTO> toViewableDTOs(List<UUID> ids, Map<UUID, Person> personMap, Set<UUID> viewable) {
+        return ids.stream()
+                .filter(id -> personMap.containsKey(id) && viewable.contains(id))
+                .map(id -> personMapper.toDTO(personMap.get(id)))
+                .collect(Collectors.toList());
+    }
+
     public PersonDTO updatePerson(UUID personId, PersonUpdateDTO dto, UUID userId) {
         permissionService.validateCanEditPerson(userId, personId);
         
@@ -143,6 +215,7 @@ public class PersonService {
         if (dto.getMetadata() != null) person.setMetadata(dto.getMetadata());
 
         Person updated = personRepository.save(person);
+        eventPublisher.publishEvent(new PublicTreeChangedEvent(Set.of(personId), Boolean.TRUE.equals(updated.getIsPublic())));
         return personMapper.toDTO(updated);
     }
 
@@ -165,6 +238,7 @@ public class PersonService {
         if (existing.isPresent()) {
             throw new InvalidRelationshipException("Cette relation existe déjà");
         }
+        closureService.validateRelationship(person1Id, person2Id, type);
 
         FamilyRelationship relationship = FamilyRelationship.builder()
                 .person1Id(person1Id)
@@ -174,69 +248,190 @@ public class PersonService {
                 .build();
 
         FamilyRelationship saved = relationshipRepository.save(relationship);
+        closureService.recordRelationship(person1Id, person2Id, type);
+        eventPublisher.publishEvent(new RelationshipAddedEvent(person1Id, person2Id, type, saved.getCreatedAt()));
+        eventPublisher.publishEvent(new PublicTreeChangedEvent(Set.of(person1Id, person2Id),
+                Boolean.TRUE.equals(person1.getIsPublic()) || Boolean.TRUE.equals(person2.getIsPublic())));
         return personMapper.toRelationshipDTO(saved);
     }
 
     public List<PersonDTO> getAncestors(UUID personId, UUID userId, int maxDepth) {
         permissionService.validateCanViewPerson(userId, personId);
-        return getAncestorsRecursive(personId, userId, maxDepth, new HashSet<>());
+        maxDepth = clampDepth(maxDepth);
+        if (maxDepth <= 0) {
+            return new ArrayList<>();
+        }
+        if (graphIndex.isReady()) {
+            return indexedLineage(personId, userId, RelationshipType.PARENT, maxDepth);
+        }
+
+        Map<UUID, Set<UUID>> adjacency = new LinkedHashMap<>();
+        for (LineageEdge edge : relationshipRepository.findAncestorEdges(personId, maxDepth)) {
+            adjacency.computeIfAbsent(edge.getPersonId(), id -> new LinkedHashSet<>()).add(edge.getRelatedId());
+        }
+        return flattenLineage(personId, userId, maxDepth, adjacency);
     }
 
-    private List<PersonDTO> getAncestorsRecursive(UUID personId, UUID userId, int depth, Set<UUID> visited) {
-        if (depth <= 0 || visited.contains(personId)) {
-            return new ArrayList<>();
+    // Hydrate les personnes en un lot, filtre les permissions en une passe,
+    // puis reproduit l'ordre du parcours en profondeur historique
+    private List<PersonDTO> flattenLineage(UUID rootId, UUID userId, int maxDepth, Map<UUID, Set<UUID>> adjacency) {
+        Map<UUID, Person> personMap = loadLineagePersons(adjacency);
+        Set<UUID> viewable = permissionService.filterViewable(userId, personMap.values());
+
+        List<PersonDTO> lineage = new ArrayList<>();
+        collectLineage(rootId, maxDepth, adjacency, personMap, viewable, new HashSet<>(), lineage);
+        return lineage;
+    }
+
+    private void collectLineage(UUID personId, int depth, Map<UUID, Set<UUID>> adjacency, Map<UUID, Person> personMap,
+                                Set<UUID> viewable, Set<UUID> visited, List<PersonDTO> lineage) {
+        if (depth <= 0 || !visited.add(personId)) {
+            return;
         }
-        visited.add(personId);
 
-        List<FamilyRelationship> parentRelations = relationshipRepository
-                .findByPerson1IdAndRelationshipType(personId, RelationshipType.PARENT);
-        
-        List<PersonDTO> ancestors = new ArrayList<>();
-        for (FamilyRelationship rel : parentRelations) {
-            UUID parentId = rel.getPerson2Id();
-            Person parent = personRepository.findById(parentId).orElse(null);
-            if (parent != null && permissionService.canViewPerson(userId, parentId)) {
-                ancestors.add(personMapper.toDTO(parent));
-                ancestors.addAll(getAncestorsRecursive(parentId, userId, depth - 1, visited));
+        for (UUID relatedId : adjacency.getOrDefault(personId, Set.of())) {
+            Person related = personMap.get(relatedId);
+            if (related != null && viewable.contains(relatedId)) {
+                lineage.add(personMapper.toDTO(related));
+                collectLineage(relatedId, depth - 1, adjacency, personMap, viewable, visited, lineage);
             }
         }
-        return ancestors;
+    }
+
+    private List<PersonDTO> indexedLineage(UUID rootId, UUID userId, RelationshipType type, int maxDepth) {
+        FamilyGraphIndex.Traversal reachable = graphIndex.traverse(rootId, type, maxDepth, node -> true);
+        Map<UUID, Person> personMap = personRepository.findAllById(reachable.personIds()).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
+        Set<UUID> viewable = permissionService.filterViewable(userId, personMap.values());
+
+        List<PersonDTO> lineage = new ArrayList<>();
+        graphIndex.depthFirst(rootId, type, maxDepth,
+                node -> viewable.contains(graphIndex.personId(node)),
+                node -> lineage.add(personMapper.toDTO(personMap.get(graphIndex.personId(node)))));
+        return lineage;
+    }
+
+    private Map<UUID, Person> loadLineagePersons(Map<UUID, Set<UUID>> adjacency) {
+        Set<UUID> relatedIds = adjacency.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        return personRepository.findAllById(relatedIds).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
     }
 
     public List<PersonDTO> getDescendants(UUID personId, UUID userId, int maxDepth) {
         permissionService.validateCanViewPerson(userId, personId);
-        return getDescendantsRecursive(personId, userId, maxDepth, new HashSet<>());
+        maxDepth = clampDepth(maxDepth);
+        if (maxDepth <= 0) {
+            return new ArrayList<>();
+        }
+        if (graphIndex.isReady()) {
+            return indexedLineage(personId, userId, RelationshipType.CHILD, maxDepth);
+        }
+        return flattenLineage(personId, userId, maxDepth, expandDescendants(personId, maxDepth));
+    }
+
+    public boolean isAncestor(UUID ancestorId, UUID personId, UUID userId) {
+        permissionService.validateCanViewPersons(userId, List.of(personId, ancestorId));
+        return closureService.isAncestor(ancestorId, personId);
     }
 
-    private List<PersonDTO> getDescendantsRecursive(UUID personId, UUID userId, int depth, Set<UUID> visited) {
-        if (depth <= 0 || visited.contains(personId)) {
+    public Map<String, Long> getLineageCounts(UUID personId, UUID userId) {
+        permissionService.validateCanViewPerson(userId, personId);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("ancestors", closureService.countAncestors(personId));
+        counts.put("descendants", closureService.countDescendants(personId));
+        return counts;
+    }
+
+    public List<LineageNodeDTO> getDescendantGenerations(UUID personId, UUID userId, int maxDepth) {
+        permissionService.validateCanViewPerson(userId, personId);
+        maxDepth = clampDepth(maxDepth);
+        if (maxDepth <= 0) {
             return new ArrayList<>();
         }
-        visited.add(personId);
+        if (graphIndex.isReady()) {
+            return indexedGenerations(personId, userId, maxDepth);
+        }
 
-        List<FamilyRelationship> childRelations = relationshipRepository
-                .findByPerson1IdAndRelationshipType(personId, RelationshipType.CHILD);
-        
-        List<PersonDTO> descendants = new ArrayList<>();
-        for (FamilyRelationship rel : childRelations) {
-            UUID childId = rel.getPerson2Id();
-            Person child = personRepository.findById(childId).orElse(null);
-            if (child != null && permissionService.canViewPerson(userId, childId)) {
-                descendants.add(personMapper.toDTO(child));
-                descendants.addAll(getDescendantsRecursive(childId, userId, depth - 1, visited));
+        Map<UUID, Set<UUID>> adjacency = expandDescendants(personId, maxDepth);
+        Map<UUID, Person> personMap = loadLineagePersons(adjacency);
+        Set<UUID> viewable = permissionService.filterViewable(userId, personMap.values());
+
+        List<LineageNodeDTO> descendants = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        seen.add(personId);
+        List<UUID> frontier = List.of(personId);
+
+        for (int generation = 1; generation <= maxDepth && !frontier.isEmpty(); generation++) {
+            List<UUID> next = new ArrayList<>();
+            for (UUID parentId : frontier) {
+                for (UUID childId : adjacency.getOrDefault(parentId, Set.of())) {
+                    Person child = personMap.get(childId);
+                    if (child != null && viewable.contains(childId) && seen.add(childId)) {
+                        descendants.add(LineageNodeDTO.builder()
+                                .person(personMapper.toDTO(child))
+                                .generation(generation)
+                                .parentId(parentId)
+                                .build());
+                        next.add(childId);
+                    }
+                }
             }
+            frontier = next;
+        }
+        return descendants;
+    }
+
+    private List<LineageNodeDTO> indexedGenerations(UUID rootId, UUID userId, int maxDepth) {
+        FamilyGraphIndex.Traversal reachable = graphIndex.traverse(rootId, RelationshipType.CHILD, maxDepth, node -> true);
+        Map<UUID, Person> personMap = personRepository.findAllById(reachable.personIds()).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
+        Set<UUID> viewable = permissionService.filterViewable(userId, personMap.values());
+
+        FamilyGraphIndex.Traversal visible = graphIndex.traverse(rootId, RelationshipType.CHILD, maxDepth,
+                node -> viewable.contains(graphIndex.personId(node)));
+        List<LineageNodeDTO> descendants = new ArrayList<>(visible.size());
+        for (int i = 0; i < visible.size(); i++) {
+            descendants.add(LineageNodeDTO.builder()
+                    .person(personMapper.toDTO(personMap.get(visible.personId(i))))
+                    .generation(visible.depth(i))
+                    .parentId(visible.parentId(i))
+                    .build());
         }
         return descendants;
     }
 
+    // Expansion en largeur : une requête IN (...) par génération, quel que soit le nombre d'enfants
+    private Map<UUID, Set<UUID>> expandDescendants(UUID rootId, int maxDepth) {
+        Map<UUID, Set<UUID>> adjacency = new LinkedHashMap<>();
+        Set<UUID> seen = new HashSet<>();
+        seen.add(rootId);
+        Set<UUID> frontier = Set.of(rootId);
+
+        for (int generation = 1; generation <= maxDepth && !frontier.isEmpty(); generation++) {
+            List<FamilyRelationship> childRelations = relationshipRepository
+                    .findByPerson1IdInAndRelationshipTypeOrderByCreatedAtAsc(frontier, RelationshipType.CHILD);
+
+            Set<UUID> next = new LinkedHashSet<>();
+            for (FamilyRelationship rel : childRelations) {
+                adjacency.computeIfAbsent(rel.getPerson1Id(), id -> new LinkedHashSet<>()).add(rel.getPerson2Id());
+                if (seen.add(rel.getPerson2Id())) {
+                    next.add(rel.getPerson2Id());
+                }
+            }
+            frontier = next;
+        }
+        return adjacency;
+    }
+
+    @Transactional(readOnly = true)
     public FamilyTreeDTO getPublicTree() {
-        Optional<User> adminUser = userRepository.findAll().stream()
-                .filter(user -> user.getRole() == Role.SUPER_ADMIN && user.getPersonId() != null)
-                .findFirst();
+        Optional<UUID> adminPersonId = adminDirectoryService.getRootPersonId();
         
         UUID rootPersonId;
-        if (adminUser.isPresent()) {
-            rootPersonId = adminUser.get().getPersonId();
+        if (adminPersonId.isPresent()) {
+            rootPersonId = adminPersonId.get();
         } else {
             List<Person> publicPersons = personRepository.findByIsPublicTrue();
             if (publicPersons.isEmpty()) {
@@ -248,71 +443,14 @@ public class PersonService {
         return getFamilyTreePublic(rootPersonId);
     }
 
-    private FamilyTreeDTO getFamilyTreePublic(UUID personId) {
-        Person person = personRepository.findById(personId)
-                .orElseThrow(() -> new PersonNotFoundException("Personne non trouvée: " + personId));
-
-        List<FamilyRelationship> allRelationships = relationshipRepository.findAllRelationshipsByPersonId(personId);
-        
-        Set<UUID> relatedPersonIds = new HashSet<>();
-        relatedPersonIds.add(personId);
-        
-        for (FamilyRelationship rel : allRelationships) {
-            relatedPersonIds.add(rel.getPerson1Id());
-            relatedPersonIds.add(rel.getPerson2Id());
-        }
-
-        List<Person> relatedPersons = personRepository.findAllById(relatedPersonIds);
-        Map<UUID, Person> personMap = relatedPersons.stream()
-                .filter(p -> p.getIsPublic() || personId.equals(p.getId()))
-                .collect(Collectors.toMap(Person::getId, p -> p));
-
-        List<PersonDTO> parents = new ArrayList<>();
-        List<PersonDTO> grandparents = new ArrayList<>();
-        List<PersonDTO> siblings = new ArrayList<>();
-
-        for (FamilyRelationship rel : allRelationships) {
-            UUID otherPersonId = rel.getPerson1Id().equals(personId) ? rel.getPerson2Id() : rel.getPerson1Id();
-            Person otherPerson = personMap.get(otherPersonId);
-            
-            if (otherPerson != null && (otherPerson.getIsPublic() || otherPersonId.equals(personId))) {
-                PersonDTO otherDTO = personMapper.toDTO(otherPerson);
-                
-                if (rel.getRelationshipType() == RelationshipType.PARENT) {
-                    parents.add(otherDTO);
-                } else if (rel.getRelationshipType() == RelationshipType.SIBLING) {
-                    siblings.add(otherDTO);
-                }
-            }
-        }
-
-        for (PersonDTO parent : parents) {
-            List<FamilyRelationship> parentRelationships = relationshipRepository
-                    .findAllRelationshipsByPersonId(parent.getId());
-            for (FamilyRelationship rel : parentRelationships) {
-                if (rel.getRelationshipType() == RelationshipType.PARENT) {
-                    UUID grandparentId = rel.getPerson1Id().equals(parent.getId()) 
-                            ? rel.getPerson2Id() 
-                            : rel.getPerson1Id();
-                    Person grandparent = personMap.get(grandparentId);
-                    if (grandparent != null && grandparent.getIsPublic()) {
-                        PersonDTO grandparentDTO = personMapper.toDTO(grandparent);
-                        if (!grandparents.contains(grandparentDTO)) {
-                            grandparents.add(grandparentDTO);
-                        }
-                    }
-                }
-            }
-        }
-
-        List<RelationshipDTO> relationships = personMapper.toRelationshipDTOList(allRelationships);
+    private int clampDepth(int depth) {
+        return Math.min(depth, maxLineageDepth);
+    }
 
-        return FamilyTreeDTO.builder()
-                .person(personMapper.toDTO(person))
-                .parents(parents)
-                .grandparents(grandparents)
-                .siblings(siblings)
-                .relationships(relationships)
-                .build();
+    private FamilyTreeDTO getFamilyTreePublic(UUID personId) {
+        return toFamilyTreeDTO(assembleFamilyTree(personId, 2, 0, persons -> persons.stream()
+                .filter(p -> Boolean.TRUE.equals(p.getIsPublic()) || personId.equals(p.getId()))
+                .map(Person::getId)
+                .collect(Collectors.toSet())));
     }
 }
@@ -6,11 +6,13 @@ import com.racines_app_back.www.domain.entity.ProfileClaim;
 import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.enums.ClaimStatus;
 import com.racines_app_back.www.domain.enums.Role;
+import com.racines_app_back.www.domain.event.UserRoleChangedEvent;
 import com.racines_app_back.www.domain.repository.ProfileClaimRepository;
 import com.racines_app_back.www.domain.repository.UserRepository;
 import com.racines_app_back.www.exception.UserNotFoundException;
 import com.racines_app_back.www.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +30,8 @@ public class ProfileClaimService {
     private final UserRepository userRepository;
     private final PermissionService permissionService;
     private final EmailService emailService;
+    private final AdminDirectoryService adminDirectoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProfileClaimDTO createClaim(ProfileClaimCreateDTO dto, UUID userId) {
         User user = userRepository.findById(userId)
@@ -60,13 +64,7 @@ public class ProfileClaimService {
 
         // Envoyer notification aux admins
         String claimantName = buildFullName(dto.getPrenom(), dto.getNom());
-        List<User> admins = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.SUPER_ADMIN)
-                .collect(Collectors.toList());
-        
-        for (User admin : admins) {
-            emailService.sendClaimNotification(admin.getEmail(), claimantName, claimantName);
-        }
+        emailService.sendClaimNotification(adminDirectoryService.getAdminEmails(), claimantName, claimantName);
 
         return toDTO(saved);
     }
@@ -78,6 +76,7 @@ public class ProfileClaimService {
         user.setPersonId(claim.getPersonId());
         user.setRole(Role.VALIDATED_USER);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserRoleChangedEvent(user.getId()));
 
         claim.setStatus(ClaimStatus.APPROVED);
         ProfileClaim saved = updateClaimProcessing(claim, adminId);
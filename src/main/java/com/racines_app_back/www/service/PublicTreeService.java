@@ -0,0 +1,96 @@
+package com.racines_app_back.www.service;
+
+import com.racines_app_back.www.domain.dto.ApiResponse;
+import com.racines_app_back.www.domain.dto.FamilyTreeDTO;
+import com.racines_app_back.www.domain.event.PublicTreeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class PublicTreeService {
+
+    private final PersonService personService;
+    // Même mapper que les convertisseurs HTTP : les octets servis sont identiques à une réponse sérialisée à la volée
+    private final JsonMapper jsonMapper;
+    private final TaskExecutor publicTreeExecutor;
+
+    private final AtomicLong requestedVersion = new AtomicLong();
+    private volatile long builtVersion = -1;
+    private volatile Snapshot snapshot;
+
+    public record Snapshot(UUID rootPersonId, FamilyTreeDTO tree, byte[] json) {
+    }
+
+    public PublicTreeService(PersonService personService, JsonMapper jsonMapper,
+                             @Qualifier("publicTreeExecutor") TaskExecutor publicTreeExecutor) {
+        this.personService = personService;
+        this.jsonMapper = jsonMapper;
+        this.publicTreeExecutor = publicTreeExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Construction initiale de l'arbre public impossible, nouvel essai à la première requête", e);
+        }
+    }
+
+    // Filtrage et demande de version sur le thread de publication : la tâche en file reconstruit sans condition
+    // pour la dernière version demandée, et couvre ainsi toute demande écartée par l'exécuteur saturé
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublicTreeChanged(PublicTreeChangedEvent event) {
+        Snapshot current = snapshot;
+        boolean touchesRoot = current != null && current.rootPersonId() != null
+                && event.personIds().contains(current.rootPersonId());
+        if (!event.publicPersonTouched() && !touchesRoot) {
+            return;
+        }
+        requestedVersion.incrementAndGet();
+        publicTreeExecutor.execute(this::rebuildQuietly);
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        rebuild();
+        return snapshot;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Reconstruction de l'arbre public impossible", e);
+        }
+    }
+
+    // La version est lue avant la construction : une modification survenue pendant celle-ci en déclenche une nouvelle
+    private synchronized void rebuild() {
+        long version = requestedVersion.get();
+        if (snapshot != null && version <= builtVersion) {
+            return;
+        }
+
+        FamilyTreeDTO tree = personService.getPublicTree();
+        ApiResponse<FamilyTreeDTO> response = tree != null
+                ? ApiResponse.success(tree)
+                : ApiResponse.error("Aucun arbre public disponible");
+        snapshot = new Snapshot(tree != null ? tree.getPerson().getId() : null, tree, jsonMapper.writeValueAsBytes(response));
+        builtVersion = version;
+        log.debug("Instantané de l'arbre public reconstruit (version {})", version);
+    }
+}
@@ -5,17 +5,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.racines_app_back.www.domain.dto.SyncOperationCreateDTO;
 import com.racines_app_back.www.domain.dto.SyncOperationDTO;
 import com.racines_app_back.www.domain.entity.SyncQueue;
-import com.racines_app_back.www.domain.enums.EntityType;
-import com.racines_app_back.www.domain.enums.OperationType;
 import com.racines_app_back.www.domain.enums.SyncStatus;
 import com.racines_app_back.www.domain.repository.SyncQueueRepository;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.sync.SyncApplyEngine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -27,9 +33,55 @@ public class SyncService {
 
     private final SyncQueueRepository syncQueueRepository;
     private final ObjectMapper objectMapper;
-    private static final int MAX_RETRIES = 3;
+    private final SyncApplyEngine syncApplyEngine;
+    private final Validator validator;
+
+    @Value("${app.sync.max-batch-size:500}")
+    private int maxBatchSize;
 
     public SyncOperationDTO queueOperation(SyncOperationCreateDTO dto, UUID userId) {
+        SyncQueue saved = syncQueueRepository.save(toEntity(dto, userId, LocalDateTime.now()));
+        log.info("Opération ajoutée à la queue de synchronisation: {}", saved.getId());
+        
+        return toDTO(saved);
+    }
+
+    // Reconnexion d'un client hors ligne : toutes les opérations validées d'abord, puis insérées en lots JDBC.
+    // Dates de création strictement croissantes pour conserver l'ordre du client à l'application
+    public List<SyncOperationDTO> queueOperations(List<SyncOperationCreateDTO> dtos, UUID userId) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new ValidationException("La liste des opérations est vide");
+        }
+        if (dtos.size() > maxBatchSize) {
+            throw new ValidationException("Trop d'opérations dans un même envoi (maximum " + maxBatchSize + ")");
+        }
+        for (int i = 0; i < dtos.size(); i++) {
+            SyncOperationCreateDTO dto = dtos.get(i);
+            if (dto == null) {
+                throw new ValidationException("Opération " + i + " : opération manquante");
+            }
+            Set<ConstraintViolation<SyncOperationCreateDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                throw new ValidationException("Opération " + i + " : " + violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        LocalDateTime base = LocalDateTime.now();
+        List<SyncQueue> operations = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            operations.add(toEntity(dtos.get(i), userId, base.plusNanos(1_000L * i)));
+        }
+        List<SyncQueue> saved = syncQueueRepository.saveAll(operations);
+        log.info("{} opération(s) ajoutée(s) à la queue de synchronisation", saved.size());
+
+        return saved.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private SyncQueue toEntity(SyncOperationCreateDTO dto, UUID userId, LocalDateTime createdAt) {
         String payloadJson = null;
         if (dto.getPayload() != null) {
             try {
@@ -40,7 +92,7 @@ public class SyncService {
             }
         }
 
-        SyncQueue syncQueue = SyncQueue.builder()
+        return SyncQueue.builder()
                 .userId(userId)
                 .operationType(dto.getOperationType())
                 .entityType(dto.getEntityType())
@@ -48,68 +100,26 @@ public class SyncService {
                 .payload(payloadJson)
                 .status(SyncStatus.PENDING)
                 .retryCount(0)
+                .createdAt(createdAt)
                 .build();
-
-        SyncQueue saved = syncQueueRepository.save(syncQueue);
-        log.info("Opération ajoutée à la queue de synchronisation: {}", saved.getId());
-        
-        return toDTO(saved);
     }
 
+    // Hors transaction : le moteur ouvre une transaction par lot d'opérations et y réserve ses lignes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<SyncOperationDTO> syncPendingOperations(UUID userId) {
-        List<SyncQueue> pendingOperations = syncQueueRepository
-                .findPendingByUserIdOrderByCreatedAt(userId);
-
-        return pendingOperations.stream()
-                .map(this::processSyncOperation)
+        return syncApplyEngine.apply(userId).stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
-    private SyncQueue processSyncOperation(SyncQueue syncQueue) {
-        try {
-            // Ici, on devrait appeler les services appropriés selon le type d'entité
-            // Pour l'instant, on simule le succès
-            // Dans une implémentation complète, on devrait:
-            // - Parser le payload JSON
-            // - Appeler le service approprié (PersonService, etc.)
-            // - Gérer les erreurs
-
-            syncQueue.setStatus(SyncStatus.SYNCED);
-            syncQueue.setSyncedAt(LocalDateTime.now());
-            
-            log.info("Opération synchronisée avec succès: {}", syncQueue.getId());
-        } catch (Exception e) {
-            log.error("Erreur lors de la synchronisation de l'opération {}: {}", 
-                    syncQueue.getId(), e.getMessage());
-            
-            syncQueue.setRetryCount(syncQueue.getRetryCount() + 1);
-            syncQueue.setErrorMessage(e.getMessage());
-            
-            if (syncQueue.getRetryCount() >= MAX_RETRIES) {
-                syncQueue.setStatus(SyncStatus.FAILED);
-                log.error("Opération marquée comme échouée après {} tentatives: {}", 
-                        MAX_RETRIES, syncQueue.getId());
-            }
-        }
-
-        return syncQueueRepository.save(syncQueue);
-    }
-
+    // Les opérations abandonnées repartent en attente avec un nouveau quota de tentatives,
+    // puis sont appliquées à leur place parmi les opérations en attente
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<SyncOperationDTO> retryFailedOperations(UUID userId) {
-        List<SyncQueue> failedOperations = syncQueueRepository
-                .findFailedWithRetryLimit(MAX_RETRIES);
-
-        return failedOperations.stream()
-                .filter(op -> op.getUserId().equals(userId))
-                .map(op -> {
-                    op.setStatus(SyncStatus.PENDING);
-                    op.setErrorMessage(null);
-                    return syncQueueRepository.save(op);
-                })
-                .map(this::processSyncOperation)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        int requeued = syncQueueRepository.requeueFailed(userId, SyncStatus.FAILED, SyncStatus.PENDING);
+        log.info("{} opération(s) échouée(s) remise(s) en attente", requeued);
+
+        return syncPendingOperations(userId);
     }
 
     public List<SyncOperationDTO> getPendingOperations(UUID userId) {
@@ -132,6 +142,7 @@ public class SyncService {
                 .payload(syncQueue.getPayload())
                 .status(syncQueue.getStatus())
                 .errorMessage(syncQueue.getErrorMessage())
+                .result(syncQueue.getResult())
                 .retryCount(syncQueue.getRetryCount())
                 .createdAt(syncQueue.getCreatedAt())
                 .syncedAt(syncQueue.getSyncedAt())
@@ -7,6 +7,8 @@ import com.racines_app_back.www.domain.entity.Person;
 import com.racines_app_back.www.domain.entity.User;
 import com.racines_app_back.www.domain.enums.Role;
 import com.racines_app_back.www.domain.enums.ValidationStatus;
+import com.racines_app_back.www.domain.event.PersonPublishedEvent;
+import com.racines_app_back.www.domain.event.PublicTreeChangedEvent;
 import com.racines_app_back.www.domain.repository.PendingAdditionRepository;
 import com.racines_app_back.www.domain.repository.PersonRepository;
 import com.racines_app_back.www.domain.repository.UserRepository;
@@ -15,11 +17,13 @@ import com.racines_app_back.www.exception.UserNotFoundException;
 import com.racines_app_back.www.exception.ValidationException;
 import com.racines_app_back.www.service.mapper.PersonMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,7 +37,9 @@ public class ValidationService {
     private final UserRepository userRepository;
     private final PermissionService permissionService;
     private final EmailService emailService;
+    private final AdminDirectoryService adminDirectoryService;
     private final PersonMapper personMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PendingAdditionDTO requestValidation(ValidationRequestDTO dto, UUID userId) {
         User user = userRepository.findById(userId)
@@ -70,16 +76,9 @@ public class ValidationService {
         PendingAddition saved = pendingAdditionRepository.save(pendingAddition);
 
         // Envoyer notification aux admins
-        List<User> admins = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.SUPER_ADMIN)
-                .collect(Collectors.toList());
-
         String requesterName = user.getPrenom() + " " + user.getNom();
         String personName = person.getPrenom() + " " + person.getNom();
-        
-        for (User admin : admins) {
-            emailService.sendValidationRequest(admin.getEmail(), requesterName, personName);
-        }
+        emailService.sendValidationRequest(adminDirectoryService.getAdminEmails(), requesterName, personName);
 
         return toDTO(saved, person);
     }
@@ -100,6 +99,8 @@ public class ValidationService {
         person.setIsPublic(true);
         person.setValidatedBy(adminId);
         personRepository.save(person);
+        eventPublisher.publishEvent(new PersonPublishedEvent(person.getId()));
+        eventPublisher.publishEvent(new PublicTreeChangedEvent(Set.of(person.getId()), true));
 
         pendingAddition.setStatus(ValidationStatus.APPROVED);
         pendingAddition.setProcessedBy(adminId);
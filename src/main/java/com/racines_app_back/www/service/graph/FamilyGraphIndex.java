@@ -0,0 +1,749 @@
+package com.racines_app_back.www.service.graph;
+
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.event.RelationshipAddedEvent;
+import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
+import com.racines_app_back.www.domain.repository.projection.RelationshipEdge;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+// Index en mémoire des relations familiales : chaque personne reçoit un identifiant dense (int)
+// et les arêtes sont stockées au format CSR (offsets/targets) par type de relation et par sens.
+// Les lectures travaillent sur un instantané immuable, les écritures publient un nouvel instantané.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FamilyGraphIndex {
+
+    private static final int FORWARD = 0;
+    private static final int REVERSE = 1;
+    private static final int SLOT_COUNT = RelationshipType.values().length * 2;
+    private static final byte SIDE_FROM = 1;
+    private static final byte SIDE_TO = 2;
+
+    private final FamilyRelationshipRepository relationshipRepository;
+
+    @Value("${app.graph.snapshot-path:}")
+    private String snapshotPath;
+
+    private final Map<UUID, Integer> denseIds = new ConcurrentHashMap<>();
+    private final ThreadLocal<VisitMarks> visitMarks = ThreadLocal.withInitial(VisitMarks::new);
+    private final List<RelationshipAddedEvent> pendingEdges = new ArrayList<>();
+
+    private volatile Graph graph = Graph.empty();
+    private volatile boolean ready;
+    private boolean loading;
+    private LocalDateTime highWaterMark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long rowCount = relationshipRepository.count();
+            LocalDateTime latest = relationshipRepository.findMaxCreatedAt();
+
+            if (!restoreSnapshot(rowCount, latest)) {
+                rebuild(relationshipRepository.findAllEdges(), latest);
+            }
+            log.info("Index du graphe familial chargé: {} personnes, {} relations en {} ms",
+                    graph.nodeCount, edgeCount(graph), System.currentTimeMillis() - start);
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            // L'index reste inutilisé : plus rien à mettre en attente
+            synchronized (this) {
+                loading = false;
+                pendingEdges.clear();
+            }
+            log.error("Impossible de charger l'index du graphe familial, repli sur les requêtes SQL: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        Path path = snapshotFile();
+        if (path == null || !ready) {
+            return;
+        }
+        FamilyGraphSnapshot.State state;
+        synchronized (this) {
+            Graph current = graph;
+            state = new FamilyGraphSnapshot.State(highWaterMark, edgeCount(current), current.personIds,
+                    current.nodeCount, current.offsets, current.targets);
+        }
+        try {
+            FamilyGraphSnapshot.write(path, state);
+            log.debug("Instantané du graphe familial écrit: {}", path);
+        } catch (IOException e) {
+            log.warn("Impossible d'écrire l'instantané du graphe familial {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Recharge l'instantané disque puis ne rejoue que les relations créées depuis sa marque d'eau haute
+    private boolean restoreSnapshot(long rowCount, LocalDateTime latest) {
+        Path path = snapshotFile();
+        if (path == null || !Files.isReadable(path)) {
+            return false;
+        }
+        FamilyGraphSnapshot.State state;
+        try {
+            state = FamilyGraphSnapshot.read(path, SLOT_COUNT);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Instantané du graphe familial illisible, reconstruction complète: {}", e.getMessage());
+            return false;
+        }
+        if (state.highWaterMark() != null && latest != null && state.highWaterMark().isAfter(latest)) {
+            return false;
+        }
+
+        List<RelationshipEdge> newer = state.highWaterMark() != null
+                ? relationshipRepository.findEdgesCreatedSince(state.highWaterMark())
+                : relationshipRepository.findAllEdges();
+        synchronized (this) {
+            denseIds.clear();
+            for (int node = 0; node < state.nodeCount(); node++) {
+                denseIds.put(state.personIds()[node], node);
+            }
+            Graph restored = new Graph(state.personIds(), state.nodeCount(), state.offsets(), state.targets());
+            for (RelationshipEdge edge : newer) {
+                restored = withEdge(restored, edge.getPerson1Id(), edge.getPerson2Id(), edge.getRelationshipType());
+            }
+
+            // Vérifié avant publication : les lecteurs sans verrou ne voient jamais un graphe incohérent
+            if (edgeCount(restored) != rowCount) {
+                log.warn("Instantané du graphe familial incohérent ({} relations attendues, {} indexées)",
+                        rowCount, edgeCount(restored));
+                denseIds.clear();
+                return false;
+            }
+            publish(restored, latest);
+        }
+        log.info("Instantané du graphe familial restauré, {} relations rejouées", newer.size());
+        return true;
+    }
+
+    private Path snapshotFile() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    @TransactionalEventListener
+    public void onRelationshipAdded(RelationshipAddedEvent event) {
+        addEdge(event);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void addEdge(RelationshipAddedEvent event) {
+        if (!ready) {
+            // Chargement en cours : la relation sera rejouée une fois l'index construit ;
+            // sans chargement (échec, index jamais chargé) les lectures passent par SQL et rien n'est conservé
+            if (loading) {
+                pendingEdges.add(event);
+            }
+            return;
+        }
+        graph = withEdge(graph, event.person1Id(), event.person2Id(), event.relationshipType());
+        raiseHighWaterMark(event.createdAt());
+    }
+
+    public UUID personId(int node) {
+        return graph.personIds[node];
+    }
+
+    public boolean areDirectlyRelated(UUID personId, UUID otherPersonId) {
+        Graph current = graph;
+        Integer source = denseIds.get(personId);
+        Integer target = denseIds.get(otherPersonId);
+        if (source == null || target == null) {
+            return false;
+        }
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (containsEdge(current, slot, source, target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<UUID> directRelatives(UUID personId) {
+        Graph current = graph;
+        Set<UUID> relatives = new HashSet<>();
+        Integer source = denseIds.get(personId);
+        if (source == null) {
+            return relatives;
+        }
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int[] offsets = current.offsets[slot];
+            if (offsets == null || source + 1 >= offsets.length) {
+                continue;
+            }
+            int[] targets = current.targets[slot];
+            for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+                relatives.add(current.personIds[targets[i]]);
+            }
+        }
+        return relatives;
+    }
+
+    // Personnes à au plus radius relations de personId, tous types de relation et dans les deux sens
+    public Set<UUID> relativesWithin(UUID personId, int radius) {
+        Graph current = graph;
+        Set<UUID> relatives = new HashSet<>();
+        Integer root = denseIds.get(personId);
+        if (root == null || root >= current.nodeCount || radius <= 0) {
+            return relatives;
+        }
+
+        VisitMarks marks = visitMarks.get();
+        marks.reset(current.nodeCount);
+        marks.mark(root);
+        int[] frontier = {root};
+        int size = 1;
+
+        for (int degree = 0; degree < radius && size > 0; degree++) {
+            int[] next = new int[Math.max(16, size)];
+            int nextSize = 0;
+            for (int f = 0; f < size; f++) {
+                int node = frontier[f];
+                for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                    int[] offsets = current.offsets[slot];
+                    if (offsets == null || node + 1 >= offsets.length) {
+                        continue;
+                    }
+                    int[] targets = current.targets[slot];
+                    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                        int neighbor = targets[i];
+                        if (marks.mark(neighbor)) {
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, nextSize * 2);
+                            }
+                            next[nextSize++] = neighbor;
+                            relatives.add(current.personIds[neighbor]);
+                        }
+                    }
+                }
+            }
+            frontier = next;
+            size = nextSize;
+        }
+        return relatives;
+    }
+
+    // Parcours en largeur depuis rootId le long des arêtes person1 -> person2 du type donné
+    public Traversal traverse(UUID rootId, RelationshipType type, int maxDepth, IntPredicate accept) {
+        Graph current = graph;
+        Integer root = denseIds.get(rootId);
+        if (root == null || root >= current.nodeCount || maxDepth <= 0) {
+            return new Traversal(current.personIds, new int[0], new int[0], new int[0], 0);
+        }
+
+        int slot = slot(type, FORWARD);
+        int[] offsets = current.offsets[slot];
+        int[] targets = current.targets[slot];
+        VisitMarks marks = visitMarks.get();
+        marks.reset(current.nodeCount);
+        marks.mark(root);
+
+        int[] nodes = new int[16];
+        int[] depths = new int[16];
+        int[] parents = new int[16];
+        int size = 0;
+        int head = -1;
+        int node = root;
+        int depth = 0;
+
+        while (true) {
+            if (depth < maxDepth && offsets != null && node + 1 < offsets.length) {
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    int next = targets[i];
+                    if (accept.test(next) && marks.mark(next)) {
+                        if (size == nodes.length) {
+                            nodes = Arrays.copyOf(nodes, size * 2);
+                            depths = Arrays.copyOf(depths, size * 2);
+                            parents = Arrays.copyOf(parents, size * 2);
+                        }
+                        nodes[size] = next;
+                        depths[size] = depth + 1;
+                        parents[size] = node;
+                        size++;
+                    }
+                }
+            }
+            if (++head >= size) {
+                break;
+            }
+            node = nodes[head];
+            depth = depths[head];
+        }
+        return new Traversal(current.personIds, nodes, depths, parents, size);
+    }
+
+    // Recherche bidirectionnelle du plus court chemin, tous types de relation et dans les deux sens.
+    // La recherche s'arrête dès que le budget de personnes visitées est dépassé.
+    public PathSearch shortestPath(UUID fromId, UUID toId, int maxVisited, int maxDistance) {
+        Graph current = graph;
+        Integer from = denseIds.get(fromId);
+        Integer to = denseIds.get(toId);
+        if (from == null || to == null || from >= current.nodeCount || to >= current.nodeCount || from.equals(to)) {
+            return new PathSearch(List.of(), false);
+        }
+
+        byte[] side = new byte[current.nodeCount];
+        int[] predecessor = new int[current.nodeCount];
+        int[] predecessorSlot = new int[current.nodeCount];
+        int[] depth = new int[current.nodeCount];
+        side[from] = SIDE_FROM;
+        side[to] = SIDE_TO;
+
+        int[] fromFrontier = {from};
+        int[] toFrontier = {to};
+        int fromSize = 1;
+        int toSize = 1;
+        int fromDepth = 0;
+        int toDepth = 0;
+        int visited = 2;
+        int meetNode = -1;
+        int meetNeighbor = -1;
+        int meetSlot = -1;
+        boolean meetFromSide = true;
+        int bestDistance = Integer.MAX_VALUE;
+
+        while (fromSize > 0 && toSize > 0 && fromDepth + toDepth < maxDistance) {
+            boolean expandFrom = fromSize <= toSize;
+            byte own = expandFrom ? SIDE_FROM : SIDE_TO;
+            int[] frontier = expandFrom ? fromFrontier : toFrontier;
+            int size = expandFrom ? fromSize : toSize;
+            int[] next = new int[Math.max(16, size)];
+            int nextSize = 0;
+
+            for (int f = 0; f < size; f++) {
+                int node = frontier[f];
+                for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                    int[] offsets = current.offsets[slot];
+                    if (offsets == null || node + 1 >= offsets.length) {
+                        continue;
+                    }
+                    int[] targets = current.targets[slot];
+                    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                        int neighbor = targets[i];
+                        if (side[neighbor] == own) {
+                            continue;
+                        }
+                        if (side[neighbor] != 0) {
+                            int distance = depth[node] + 1 + depth[neighbor];
+                            if (distance < bestDistance) {
+                                bestDistance = distance;
+                                meetNode = node;
+                                meetNeighbor = neighbor;
+                                meetSlot = slot;
+                                meetFromSide = expandFrom;
+                            }
+                            continue;
+                        }
+                        if (++visited > maxVisited) {
+                            return new PathSearch(List.of(), true);
+                        }
+                        side[neighbor] = own;
+                        predecessor[neighbor] = node;
+                        predecessorSlot[neighbor] = slot;
+                        depth[neighbor] = depth[node] + 1;
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize * 2);
+                        }
+                        next[nextSize++] = neighbor;
+                    }
+                }
+            }
+
+            if (expandFrom) {
+                fromFrontier = next;
+                fromSize = nextSize;
+                fromDepth++;
+            } else {
+                toFrontier = next;
+                toSize = nextSize;
+                toDepth++;
+            }
+            if (meetNode >= 0) {
+                break;
+            }
+        }
+        if (meetNode < 0) {
+            return new PathSearch(List.of(), false);
+        }
+
+        // Reconstitution : from ... fromNode -> toNode ... to
+        int fromNode = meetFromSide ? meetNode : meetNeighbor;
+        int toNode = meetFromSide ? meetNeighbor : meetNode;
+        int bridgeSlot = meetFromSide ? meetSlot : meetSlot ^ 1;
+
+        List<PathStep> steps = new ArrayList<>();
+        for (int node = fromNode; node != from; node = predecessor[node]) {
+            steps.add(pathStep(current, node, predecessorSlot[node]));
+        }
+        Collections.reverse(steps);
+        steps.add(pathStep(current, toNode, bridgeSlot));
+        for (int node = toNode; node != to; node = predecessor[node]) {
+            steps.add(pathStep(current, predecessor[node], predecessorSlot[node] ^ 1));
+        }
+        return new PathSearch(steps, false);
+    }
+
+    // Profondeur de chaque ancêtre (la personne elle-même à 0), quel que soit l'encodage de la filiation :
+    // (enfant, parent, PARENT) ou (parent, enfant, CHILD)
+    public Map<UUID, Integer> ancestorDepths(UUID personId, int maxDepth, int maxVisited) {
+        Graph current = graph;
+        Map<UUID, Integer> ancestors = new LinkedHashMap<>();
+        Integer root = denseIds.get(personId);
+        if (root == null || root >= current.nodeCount) {
+            ancestors.put(personId, 0);
+            return ancestors;
+        }
+
+        int[] parentSlots = {slot(RelationshipType.PARENT, FORWARD), slot(RelationshipType.CHILD, REVERSE)};
+        VisitMarks marks = visitMarks.get();
+        marks.reset(current.nodeCount);
+        marks.mark(root);
+        ancestors.put(personId, 0);
+
+        int[] queue = new int[16];
+        int[] depths = new int[16];
+        int size = 0;
+        int head = -1;
+        int node = root;
+        int depth = 0;
+
+        while (size < maxVisited) {
+            if (depth < maxDepth) {
+                for (int slot : parentSlots) {
+                    int[] offsets = current.offsets[slot];
+                    if (offsets == null || node + 1 >= offsets.length) {
+                        continue;
+                    }
+                    int[] targets = current.targets[slot];
+                    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                        int parent = targets[i];
+                        if (marks.mark(parent)) {
+                            if (size == queue.length) {
+                                queue = Arrays.copyOf(queue, size * 2);
+                                depths = Arrays.copyOf(depths, size * 2);
+                            }
+                            queue[size] = parent;
+                            depths[size++] = depth + 1;
+                            ancestors.put(current.personIds[parent], depth + 1);
+                        }
+                    }
+                }
+            }
+            if (++head >= size) {
+                break;
+            }
+            node = queue[head];
+            depth = depths[head];
+        }
+        return ancestors;
+    }
+
+    // Parcours en profondeur qui reproduit l'ordre historique des lignées (ancêtres, descendants)
+    public void depthFirst(UUID rootId, RelationshipType type, int maxDepth, IntPredicate accept, IntConsumer visitor) {
+        Graph current = graph;
+        Integer root = denseIds.get(rootId);
+        if (root == null || root >= current.nodeCount) {
+            return;
+        }
+        VisitMarks marks = visitMarks.get();
+        marks.reset(current.nodeCount);
+        depthFirst(current, slot(type, FORWARD), root, maxDepth, accept, visitor, marks);
+    }
+
+    private void depthFirst(Graph current, int slot, int node, int depth, IntPredicate accept, IntConsumer visitor,
+                            VisitMarks marks) {
+        if (depth <= 0 || !marks.mark(node)) {
+            return;
+        }
+        int[] offsets = current.offsets[slot];
+        if (offsets == null || node + 1 >= offsets.length) {
+            return;
+        }
+        int[] targets = current.targets[slot];
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            int next = targets[i];
+            if (accept.test(next)) {
+                visitor.accept(next);
+                depthFirst(current, slot, next, depth - 1, accept, visitor, marks);
+            }
+        }
+    }
+
+    private synchronized void rebuild(List<RelationshipEdge> edges, LocalDateTime latest) {
+        denseIds.clear();
+        Graph current = Graph.empty();
+
+        int[] sources = new int[edges.size()];
+        int[] destinations = new int[edges.size()];
+        int[] slots = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            RelationshipEdge edge = edges.get(i);
+            current = withPerson(current, edge.getPerson1Id());
+            current = withPerson(current, edge.getPerson2Id());
+            sources[i] = denseIds.get(edge.getPerson1Id());
+            destinations[i] = denseIds.get(edge.getPerson2Id());
+            slots[i] = slot(edge.getRelationshipType(), FORWARD);
+        }
+
+        int[][] offsets = new int[SLOT_COUNT][];
+        int[][] targets = new int[SLOT_COUNT][];
+        buildSlots(offsets, targets, current.nodeCount, sources, destinations, slots, edges.size());
+        publish(new Graph(current.personIds, current.nodeCount, offsets, targets), latest);
+    }
+
+    // Appelé sous verrou : rejoue les relations reçues pendant le chargement, puis rend l'index visible
+    private void publish(Graph loaded, LocalDateTime latest) {
+        Graph current = loaded;
+        highWaterMark = latest;
+        for (RelationshipAddedEvent pending : pendingEdges) {
+            current = withEdge(current, pending.person1Id(), pending.person2Id(), pending.relationshipType());
+            raiseHighWaterMark(pending.createdAt());
+        }
+        pendingEdges.clear();
+        graph = current;
+        loading = false;
+        ready = true;
+    }
+
+    // La marque suit les relations indexées : l'instantané écrit à l'arrêt ne fait rejouer que les plus récentes
+    private void raiseHighWaterMark(LocalDateTime createdAt) {
+        if (createdAt != null && (highWaterMark == null || createdAt.isAfter(highWaterMark))) {
+            highWaterMark = createdAt;
+        }
+    }
+
+    private static long edgeCount(Graph current) {
+        long count = 0;
+        for (int slot = 0; slot < SLOT_COUNT; slot += 2) {
+            if (current.targets[slot] != null) {
+                count += current.targets[slot].length;
+            }
+        }
+        return count;
+    }
+
+    // Tri par comptage : conserve l'ordre d'insertion des voisins de chaque personne
+    private void buildSlots(int[][] offsets, int[][] targets, int nodeCount,
+                            int[] sources, int[] destinations, int[] slots, int edgeCount) {
+        for (int slot = 0; slot < SLOT_COUNT; slot += 2) {
+            for (int direction = FORWARD; direction <= REVERSE; direction++) {
+                int[] slotOffsets = new int[nodeCount + 1];
+                int count = 0;
+                for (int i = 0; i < edgeCount; i++) {
+                    if (slots[i] == slot) {
+                        int from = direction == FORWARD ? sources[i] : destinations[i];
+                        slotOffsets[from + 1]++;
+                        count++;
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                for (int n = 0; n < nodeCount; n++) {
+                    slotOffsets[n + 1] += slotOffsets[n];
+                }
+                int[] cursor = Arrays.copyOf(slotOffsets, nodeCount);
+                int[] slotTargets = new int[count];
+                for (int i = 0; i < edgeCount; i++) {
+                    if (slots[i] == slot) {
+                        int from = direction == FORWARD ? sources[i] : destinations[i];
+                        int to = direction == FORWARD ? destinations[i] : sources[i];
+                        slotTargets[cursor[from]++] = to;
+                    }
+                }
+                offsets[slot + direction] = slotOffsets;
+                targets[slot + direction] = slotTargets;
+            }
+        }
+    }
+
+    // Appelé sous verrou : ajoute la personne au dictionnaire, renvoie le graphe qui la contient
+    private Graph withPerson(Graph current, UUID personId) {
+        if (denseIds.containsKey(personId)) {
+            return current;
+        }
+        int node = current.nodeCount;
+        UUID[] personIds = current.personIds;
+        if (node == personIds.length) {
+            personIds = Arrays.copyOf(personIds, Math.max(16, node * 2));
+        }
+        personIds[node] = personId;
+        denseIds.put(personId, node);
+        return new Graph(personIds, node + 1, current.offsets, current.targets);
+    }
+
+    // Appelé sous verrou : renvoie un nouveau graphe contenant l'arête, ou le même si elle existe déjà
+    private Graph withEdge(Graph current, UUID person1Id, UUID person2Id, RelationshipType type) {
+        current = withPerson(current, person1Id);
+        current = withPerson(current, person2Id);
+        int source = denseIds.get(person1Id);
+        int target = denseIds.get(person2Id);
+        if (containsEdge(current, slot(type, FORWARD), source, target)) {
+            return current;
+        }
+        int[][] offsets = current.offsets.clone();
+        int[][] targets = current.targets.clone();
+        insertEdge(offsets, targets, slot(type, FORWARD), source, target);
+        insertEdge(offsets, targets, slot(type, REVERSE), target, source);
+        return new Graph(current.personIds, current.nodeCount, offsets, targets);
+    }
+
+    private static void insertEdge(int[][] offsets, int[][] targets, int slot, int source, int target) {
+        int[] previousOffsets = offsets[slot];
+        int[] previousTargets = targets[slot] != null ? targets[slot] : new int[0];
+        int length = Math.max(source + 2, previousOffsets != null ? previousOffsets.length : 0);
+
+        int[] newOffsets = new int[length];
+        int copied = 0;
+        if (previousOffsets != null) {
+            System.arraycopy(previousOffsets, 0, newOffsets, 0, previousOffsets.length);
+            copied = previousOffsets.length;
+        }
+        Arrays.fill(newOffsets, copied, length, previousTargets.length);
+
+        int position = newOffsets[source + 1];
+        int[] newTargets = new int[previousTargets.length + 1];
+        System.arraycopy(previousTargets, 0, newTargets, 0, position);
+        newTargets[position] = target;
+        System.arraycopy(previousTargets, position, newTargets, position + 1, previousTargets.length - position);
+        for (int n = source + 1; n < length; n++) {
+            newOffsets[n]++;
+        }
+
+        offsets[slot] = newOffsets;
+        targets[slot] = newTargets;
+    }
+
+    private static boolean containsEdge(Graph current, int slot, int source, int target) {
+        int[] offsets = current.offsets[slot];
+        if (offsets == null || source + 1 >= offsets.length) {
+            return false;
+        }
+        int[] targets = current.targets[slot];
+        for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+            if (targets[i] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int slot(RelationshipType type, int direction) {
+        return type.ordinal() * 2 + direction;
+    }
+
+    private static PathStep pathStep(Graph current, int node, int slot) {
+        return new PathStep(current.personIds[node], RelationshipType.values()[slot / 2], slot % 2 == REVERSE);
+    }
+
+    private record Graph(UUID[] personIds, int nodeCount, int[][] offsets, int[][] targets) {
+        static Graph empty() {
+            return new Graph(new UUID[16], 0, new int[SLOT_COUNT][], new int[SLOT_COUNT][]);
+        }
+    }
+
+    // Étape vers personId : reverse = false si la relation est enregistrée (précédent, personId, type),
+    // reverse = true si elle l'est dans l'autre sens (personId, précédent, type)
+    public record PathStep(UUID personId, RelationshipType relationshipType, boolean reverse) {
+    }
+
+    public record PathSearch(List<PathStep> steps, boolean exhausted) {
+    }
+
+    public static final class Traversal {
+        private final UUID[] personIds;
+        private final int[] nodes;
+        private final int[] depths;
+        private final int[] parents;
+        private final int size;
+
+        private Traversal(UUID[] personIds, int[] nodes, int[] depths, int[] parents, int size) {
+            this.personIds = personIds;
+            this.nodes = nodes;
+            this.depths = depths;
+            this.parents = parents;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public UUID personId(int index) {
+            return personIds[nodes[index]];
+        }
+
+        public int depth(int index) {
+            return depths[index];
+        }
+
+        public UUID parentId(int index) {
+            return personIds[parents[index]];
+        }
+
+        public List<UUID> personIds() {
+            List<UUID> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(personIds[nodes[i]]);
+            }
+            return ids;
+        }
+    }
+
+    // Marquage des nœuds visités par époque : aucun effacement ni allocation entre deux parcours
+    private static final class VisitMarks {
+        private int[] stamps = new int[0];
+        private int epoch;
+
+        void reset(int capacity) {
+            if (stamps.length < capacity) {
+                stamps = new int[Math.max(capacity, stamps.length * 2)];
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+        }
+
+        boolean mark(int node) {
+            if (stamps[node] == epoch) {
+                return false;
+            }
+            stamps[node] = epoch;
+            return true;
+        }
+    }
+}
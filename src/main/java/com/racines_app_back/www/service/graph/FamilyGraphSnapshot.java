@@ -0,0 +1,136 @@
+package com.racines_app_back.www.service.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+// Format binaire de l'index : en-tête (marque d'eau haute, nombre de lignes), dictionnaire des
+// identifiants denses puis tableaux CSR de chaque emplacement, suivis d'un CRC32 de contrôle.
+final class FamilyGraphSnapshot {
+
+    private static final int MAGIC = 0x52474958;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8 + 4 + 4;
+
+    record State(LocalDateTime highWaterMark, long rowCount, UUID[] personIds, int nodeCount,
+                 int[][] offsets, int[][] targets) {
+    }
+
+    private FamilyGraphSnapshot() {
+    }
+
+    static void write(Path path, State state) throws IOException {
+        long size = HEADER_BYTES + 16L * state.nodeCount() + 8;
+        for (int slot = 0; slot < state.offsets().length; slot++) {
+            size += 8 + 4L * length(state.offsets()[slot]) + 4L * length(state.targets()[slot]);
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            LocalDateTime highWaterMark = state.highWaterMark();
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(highWaterMark != null ? highWaterMark.toEpochSecond(ZoneOffset.UTC) : 0L);
+            buffer.putInt(highWaterMark != null ? highWaterMark.getNano() : -1);
+            buffer.putLong(state.rowCount());
+            buffer.putInt(state.nodeCount());
+            buffer.putInt(state.offsets().length);
+
+            for (int node = 0; node < state.nodeCount(); node++) {
+                buffer.putLong(state.personIds()[node].getMostSignificantBits());
+                buffer.putLong(state.personIds()[node].getLeastSignificantBits());
+            }
+            for (int slot = 0; slot < state.offsets().length; slot++) {
+                putInts(buffer, state.offsets()[slot]);
+                putInts(buffer, state.targets()[slot]);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - 8));
+            buffer.putLong(crc.getValue());
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static State read(Path path, int slotCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 8 || size > Integer.MAX_VALUE) {
+                throw new IOException("Taille d'instantané invalide: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - 8));
+            if (crc.getValue() != buffer.getLong((int) size - 8)) {
+                throw new IOException("Somme de contrôle de l'instantané invalide");
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Format d'instantané non reconnu");
+            }
+
+            long epochSecond = buffer.getLong();
+            int nano = buffer.getInt();
+            LocalDateTime highWaterMark = nano >= 0
+                    ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC)
+                    : null;
+            long rowCount = buffer.getLong();
+            int nodeCount = buffer.getInt();
+            if (buffer.getInt() != slotCount) {
+                throw new IOException("Nombre de types de relation différent de l'instantané");
+            }
+
+            UUID[] personIds = new UUID[Math.max(16, nodeCount)];
+            for (int node = 0; node < nodeCount; node++) {
+                personIds[node] = new UUID(buffer.getLong(), buffer.getLong());
+            }
+            int[][] offsets = new int[slotCount][];
+            int[][] targets = new int[slotCount][];
+            for (int slot = 0; slot < slotCount; slot++) {
+                offsets[slot] = getInts(buffer);
+                targets[slot] = getInts(buffer);
+            }
+            return new State(highWaterMark, rowCount, personIds, nodeCount, offsets, targets);
+        }
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.putInt(values != null ? values.length : -1);
+        if (values != null) {
+            buffer.asIntBuffer().put(values);
+            buffer.position(buffer.position() + 4 * values.length);
+        }
+    }
+
+    private static int[] getInts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * length);
+        return values;
+    }
+
+    private static int length(int[] values) {
+        return values != null ? values.length : 0;
+    }
+}
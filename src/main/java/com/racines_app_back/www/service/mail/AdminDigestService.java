@@ -0,0 +1,92 @@
+package com.racines_app_back.www.service.mail;
+
+import com.racines_app_back.www.domain.event.AdminNotificationEvent;
+import com.racines_app_back.www.service.AdminDirectoryService;
+import com.racines_app_back.www.util.BrevoEmailService;
+import com.racines_app_back.www.util.EmailMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Récapitulatif des demandes adressées aux administrateurs : les notifications s'accumulent en mémoire
+// et partent en un seul email par administrateur, à intervalle régulier ou dès que le seuil est atteint
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminDigestService {
+
+    private final AdminDirectoryService adminDirectoryService;
+    private final BrevoEmailService brevoEmailService;
+    private final EmailOutboxService outboxService;
+
+    private final Queue<AdminNotificationEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${app.mail.admin-digest.max-items:50}")
+    private int maxItems;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdminNotification(AdminNotificationEvent event) {
+        pending.add(event);
+        if (pendingCount.incrementAndGet() >= maxItems) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.admin-digest.interval:PT15M}")
+    public void flush() {
+        // Un seul vidage à la fois ; les notifications arrivées entre-temps partiront au suivant
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<AdminNotificationEvent> events = new ArrayList<>();
+            AdminNotificationEvent event;
+            while ((event = pending.poll()) != null) {
+                events.add(event);
+                pendingCount.decrementAndGet();
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+
+            List<String> adminEmails = adminDirectoryService.getAdminEmails();
+            if (adminEmails.isEmpty()) {
+                log.warn("Aucun administrateur pour recevoir le récapitulatif de {} demande(s)", events.size());
+                return;
+            }
+            EmailMessage digest = brevoEmailService.adminDigest(adminEmails.get(0), events);
+            try {
+                outboxService.enqueueAll(adminEmails.stream()
+                        .map(adminEmail -> new EmailMessage(adminEmail, digest.subject(), digest.htmlContent()))
+                        .toList());
+            } catch (RuntimeException e) {
+                // Remises en file pour le prochain vidage plutôt que perdues
+                pending.addAll(events);
+                pendingCount.addAndGet(events.size());
+                log.error("Écriture du récapitulatif impossible, {} demande(s) conservées: {}", events.size(), e.getMessage());
+                return;
+            }
+            log.info("Récapitulatif de {} demande(s) envoyé à {} administrateur(s)", events.size(), adminEmails.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,134 @@
+package com.racines_app_back.www.service.mail;
+
+import com.racines_app_back.www.domain.entity.EmailOutbox;
+import com.racines_app_back.www.util.BrevoEmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Vide la table email_outbox par lots : les envois, regroupés par contenu, partent en parallèle sur le WebClient non bloquant,
+// les résultats sont enregistrés en une transaction sur un thread élastique, jamais sur un thread réseau
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final BrevoEmailService brevoEmailService;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.mail.outbox.send-timeout:PT30S}")
+    private Duration sendTimeout;
+
+    @Value("${app.mail.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        // Un seul lot en vol par instance ; le suivant attend la fin de l'enregistrement des résultats
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        List<EmailOutbox> batch;
+        try {
+            batch = outboxService.claimDue(batchSize);
+        } catch (RuntimeException e) {
+            dispatching.set(false);
+            log.error("Lecture de la file d'emails impossible: {}", e.getMessage());
+            return;
+        }
+        if (batch.isEmpty()) {
+            dispatching.set(false);
+            return;
+        }
+
+        // Contenus identiques (notification envoyée à tous les administrateurs) : une seule requête Brevo
+        Map<Content, List<EmailOutbox>> groups = new LinkedHashMap<>();
+        for (EmailOutbox row : batch) {
+            groups.computeIfAbsent(new Content(row.getSubject(), row.getHtmlContent()), key -> new ArrayList<>()).add(row);
+        }
+
+        Flux.fromIterable(groups.entrySet())
+                .flatMap(group -> deliver(group.getKey(), group.getValue()), concurrency)
+                .collectList()
+                .map(results -> results.stream().flatMap(List::stream).toList())
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(outboxService::recordResults)
+                .doFinally(signal -> dispatching.set(false))
+                .subscribe(
+                        results -> log.debug("{} email(s) traités depuis la file", results.size()),
+                        e -> log.error("Enregistrement des envois d'emails impossible: {}", e.getMessage(), e));
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int purged = outboxService.purgeSent(retention);
+        if (purged > 0) {
+            log.info("{} email(s) envoyés purgés de la file", purged);
+        }
+    }
+
+    private Mono<List<EmailOutboxService.DeliveryResult>> deliver(Content content, List<EmailOutbox> rows) {
+        List<String> recipients = rows.stream().map(EmailOutbox::getRecipient).distinct().toList();
+        return brevoEmailService.sendBatch(content.subject(), content.htmlContent(), recipients)
+                .timeout(sendTimeout)
+                .then(Mono.fromSupplier(() -> results(rows, null, false)))
+                .onErrorResume(e -> {
+                    boolean rejected = isRejected(e);
+                    if (rejected && recipients.size() > 1) {
+                        log.warn("Lot de {} destinataires refusé ({}), envoi individuel", recipients.size(), e.getMessage());
+                        return deliverIndividually(content, rows);
+                    }
+                    log.warn("Échec de l'envoi de {} email(s) à {}: {}", rows.size(), recipients, e.getMessage());
+                    return Mono.just(results(rows, String.valueOf(e.getMessage()), rejected));
+                });
+    }
+
+    // Une seule adresse invalide fait refuser tout le lot : chaque destinataire est renvoyé seul pour isoler la fautive
+    private Mono<List<EmailOutboxService.DeliveryResult>> deliverIndividually(Content content, List<EmailOutbox> rows) {
+        Map<String, List<EmailOutbox>> byRecipient = rows.stream()
+                .collect(Collectors.groupingBy(EmailOutbox::getRecipient, LinkedHashMap::new, Collectors.toList()));
+        return Flux.fromIterable(byRecipient.values())
+                .concatMap(recipientRows -> deliver(content, recipientRows))
+                .collectList()
+                .map(results -> results.stream().flatMap(List::stream).toList());
+    }
+
+    // Refus définitif du message ; 401/403 signalent une clé d'API invalide, 408/429 un problème passager : réessayés
+    private boolean isRejected(Throwable e) {
+        if (!(e instanceof WebClientResponseException response) || !response.getStatusCode().is4xxClientError()) {
+            return false;
+        }
+        int status = response.getStatusCode().value();
+        return status != 401 && status != 403 && status != 408 && status != 429;
+    }
+
+    private List<EmailOutboxService.DeliveryResult> results(List<EmailOutbox> rows, String error, boolean permanent) {
+        return rows.stream()
+                .map(row -> new EmailOutboxService.DeliveryResult(row.getId(), error, permanent))
+                .toList();
+    }
+
+    private record Content(String subject, String htmlContent) {
+    }
+}
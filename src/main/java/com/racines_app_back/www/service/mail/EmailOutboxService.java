@@ -0,0 +1,135 @@
+package com.racines_app_back.www.service.mail;
+
+import com.racines_app_back.www.domain.entity.EmailOutbox;
+import com.racines_app_back.www.domain.enums.EmailOutboxStatus;
+import com.racines_app_back.www.domain.repository.EmailOutboxRepository;
+import com.racines_app_back.www.util.EmailMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final EmailOutboxRepository outboxRepository;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${app.mail.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${app.mail.outbox.lease:PT5M}")
+    private Duration lease;
+
+    // permanent : refus définitif du fournisseur (adresse invalide...), inutile de réessayer
+    public record DeliveryResult(UUID id, String error, boolean permanent) {
+
+        public DeliveryResult(UUID id, String error) {
+            this(id, error, false);
+        }
+    }
+
+    // Rejoint la transaction de l'appelant : l'email n'existe que si l'opération métier est validée
+    public void enqueue(EmailMessage message) {
+        outboxRepository.save(EmailOutbox.builder()
+                .recipient(message.to())
+                .subject(message.subject())
+                .htmlContent(message.htmlContent())
+                .build());
+    }
+
+    // Transaction propre : appelable depuis un écouteur après validation, où la transaction d'origine est close
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueAll(Collection<EmailMessage> messages) {
+        outboxRepository.saveAll(messages.stream()
+                .map(message -> EmailOutbox.builder()
+                        .recipient(message.to())
+                        .subject(message.subject())
+                        .htmlContent(message.htmlContent())
+                        .build())
+                .toList());
+    }
+
+    // Réserve un lot de lignes dues ; le bail repousse leur échéance au cas où l'instance tomberait en cours d'envoi
+    public List<EmailOutbox> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = outboxRepository.lockDue(now, limit);
+        due.forEach(row -> row.setNextAttemptAt(now.plus(lease)));
+        return due;
+    }
+
+    public void recordResults(Collection<DeliveryResult> results) {
+        Map<UUID, EmailOutbox> rows = outboxRepository.findAllById(
+                        results.stream().map(DeliveryResult::id).toList()).stream()
+                .collect(Collectors.toMap(EmailOutbox::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (DeliveryResult result : results) {
+            EmailOutbox row = rows.get(result.id());
+            if (row == null || row.getStatus() != EmailOutboxStatus.PENDING) {
+                continue;
+            }
+            if (result.error() == null) {
+                row.setStatus(EmailOutboxStatus.SENT);
+                row.setSentAt(now);
+                row.setLastError(null);
+                continue;
+            }
+
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setLastError(truncate(result.error()));
+            if (result.permanent()) {
+                row.setStatus(EmailOutboxStatus.DEAD);
+                log.error("Email {} à {} refusé définitivement: {}", row.getId(), row.getRecipient(), result.error());
+            } else if (attempts >= maxAttempts) {
+                row.setStatus(EmailOutboxStatus.DEAD);
+                log.error("Email {} à {} abandonné après {} tentatives: {}", row.getId(), row.getRecipient(), attempts, result.error());
+            } else {
+                row.setNextAttemptAt(now.plus(backoff(attempts)));
+            }
+        }
+    }
+
+    public int purgeSent(Duration retention) {
+        return outboxRepository.deleteByStatusBefore(EmailOutboxStatus.SENT, LocalDateTime.now().minus(retention));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> getCounts() {
+        return Map.of(
+                "pending", outboxRepository.countByStatus(EmailOutboxStatus.PENDING),
+                "dead", outboxRepository.countByStatus(EmailOutboxStatus.DEAD));
+    }
+
+    // Délai exponentiel plafonné : 30 s, 1 min, 2 min... jusqu'à max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
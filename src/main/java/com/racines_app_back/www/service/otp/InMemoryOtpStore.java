@@ -0,0 +1,88 @@
+package com.racines_app_back.www.service.otp;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Codes en mémoire, purgés par une roue temporelle hachée : chaque tic ne parcourt qu'un seul compartiment
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int WHEEL_SIZE = 512;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.otp.wheel-tick:PT1S}")
+    private Duration tick;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Expiry>[] wheel = newWheel();
+    private final AtomicLong currentTick = new AtomicLong();
+
+    private record Entry(byte[] code, long expiresAt, AtomicInteger attempts) {
+    }
+
+    private record Expiry(String email, Entry entry, long deadlineTick) {
+    }
+
+    @Override
+    public void put(String email, String code, Duration ttl) {
+        Entry entry = new Entry(code.getBytes(StandardCharsets.UTF_8), System.nanoTime() + ttl.toNanos(), new AtomicInteger());
+        entries.put(email, entry);
+        long deadline = currentTick.get() + Math.max(1, ttl.toNanos() / tick.toNanos() + 1);
+        wheel[(int) (deadline % WHEEL_SIZE)].add(new Expiry(email, entry, deadline));
+    }
+
+    @Override
+    public boolean verify(String email, String code) {
+        Entry entry = entries.get(email);
+        if (entry == null || code == null) {
+            return false;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0 || entry.attempts().incrementAndGet() > maxAttempts) {
+            entries.remove(email, entry);
+            return false;
+        }
+        if (!MessageDigest.isEqual(entry.code(), code.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        // Usage unique : seul l'appel qui retire l'entrée l'emporte
+        return entries.remove(email, entry);
+    }
+
+    @Scheduled(fixedRateString = "${app.otp.wheel-tick:PT1S}")
+    public void advance() {
+        long now = currentTick.incrementAndGet();
+        Iterator<Expiry> bucket = wheel[(int) (now % WHEEL_SIZE)].iterator();
+        while (bucket.hasNext()) {
+            Expiry expiry = bucket.next();
+            if (expiry.deadlineTick() <= now) {
+                entries.remove(expiry.email(), expiry.entry());
+                bucket.remove();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Queue<Expiry>[] newWheel() {
+        Queue<Expiry>[] buckets = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,67 @@
+package com.racines_app_back.www.service.otp;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+// Codes partagés entre instances dans la table otp_codes ; seule une empreinte SHA-256 du code est conservée
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements OtpStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Override
+    public void put(String email, String code, Duration ttl) {
+        jdbcTemplate.update("INSERT INTO otp_codes (email, code_hash, expires_at, attempts) VALUES (?, ?, ?, 0) " +
+                        "ON CONFLICT (email) DO UPDATE SET code_hash = EXCLUDED.code_hash, " +
+                        "expires_at = EXCLUDED.expires_at, attempts = 0",
+                email, hash(code), Timestamp.valueOf(LocalDateTime.now().plus(ttl)));
+    }
+
+    @Override
+    public boolean verify(String email, String code) {
+        if (code == null) {
+            return false;
+        }
+        // La suppression conditionnelle consomme le code de façon atomique, même entre instances
+        int consumed = jdbcTemplate.update("DELETE FROM otp_codes WHERE email = ? AND code_hash = ? " +
+                        "AND expires_at > ? AND attempts < ?",
+                email, hash(code), Timestamp.valueOf(LocalDateTime.now()), maxAttempts);
+        if (consumed == 1) {
+            return true;
+        }
+        jdbcTemplate.update("UPDATE otp_codes SET attempts = attempts + 1 WHERE email = ?", email);
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval:PT5M}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM otp_codes WHERE expires_at < ? OR attempts >= ?",
+                Timestamp.valueOf(LocalDateTime.now()), maxAttempts);
+    }
+
+    private String hash(String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.racines_app_back.www.service.otp;
+
+import java.time.Duration;
+
+// Stockage des codes à usage unique, indexés par email : un seul code actif par adresse
+public interface OtpStore {
+
+    void put(String email, String code, Duration ttl);
+
+    // Consomme le code s'il est valide ; chaque échec compte comme une tentative
+    boolean verify(String email, String code);
+}
@@ -0,0 +1,42 @@
+package com.racines_app_back.www.service.ratelimit;
+
+import com.racines_app_back.www.exception.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class AuthRateLimiter {
+
+    private static final int STRIPES = 64;
+    private static final int KEYS_PER_STRIPE = 4096;
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byEmail;
+
+    public AuthRateLimiter(@Value("${app.rate-limit.ip.burst:20}") int ipBurst,
+                           @Value("${app.rate-limit.ip.refill-per-minute:10}") double ipRefillPerMinute,
+                           @Value("${app.rate-limit.email.burst:5}") int emailBurst,
+                           @Value("${app.rate-limit.email.refill-per-minute:1}") double emailRefillPerMinute) {
+        this.byIp = new TokenBucketLimiter(STRIPES, KEYS_PER_STRIPE, ipBurst, ipRefillPerMinute);
+        this.byEmail = new TokenBucketLimiter(STRIPES, KEYS_PER_STRIPE, emailBurst, emailRefillPerMinute);
+    }
+
+    public void checkIp(String clientIp) {
+        if (!byIp.tryAcquire(clientIp)) {
+            throw new RateLimitExceededException("Trop de tentatives depuis cette adresse, veuillez réessayer plus tard");
+        }
+    }
+
+    public void checkEmail(String email) {
+        if (email != null && !byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT))) {
+            throw new RateLimitExceededException("Trop de tentatives pour cette adresse email, veuillez réessayer plus tard");
+        }
+    }
+
+    public Map<String, Long> getRejections() {
+        return Map.of("ip", byIp.getRejections(), "email", byEmail.getRejections());
+    }
+}
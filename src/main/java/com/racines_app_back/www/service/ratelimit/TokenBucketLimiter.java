@@ -0,0 +1,74 @@
+package com.racines_app_back.www.service.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Seaux à jetons répartis sur des segments verrouillés indépendamment : deux clés de segments
+// différents ne se disputent jamais un verrou. Un seau par clé, réutilisé, et les clés les moins
+// récemment vues sont oubliées au-delà de la capacité du segment.
+public final class TokenBucketLimiter {
+
+    private final Stripe[] stripes;
+    private final double burst;
+    private final double tokensPerNano;
+    private final LongAdder rejections = new LongAdder();
+
+    public TokenBucketLimiter(int stripeCount, int keysPerStripe, int burst, double refillPerMinute) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.burst = burst;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return true;
+            }
+        }
+        rejections.increment();
+        return false;
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.racines_app_back.www.service.security;
+
+import com.racines_app_back.www.domain.entity.RevokedToken;
+import com.racines_app_back.www.domain.entity.User;
+import com.racines_app_back.www.domain.entity.UserTokenRevocation;
+import com.racines_app_back.www.domain.event.UserRoleChangedEvent;
+import com.racines_app_back.www.domain.repository.RevokedTokenRepository;
+import com.racines_app_back.www.domain.repository.UserTokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Jetons de session sans état : <kid>.<charge utile base64url>.<HMAC-SHA256 base64url>.
+// La charge utile ne porte que userId|iat|exp|jti : rôle et personne liée sont résolus par UserCache.
+// Garantie sur un changement de rôle ou de personne liée : il enregistre, dans sa transaction, une date avant laquelle
+// les jetons de l'utilisateur sont refusés. L'instance qui fait le changement les refuse dès la validation ; les autres
+// au plus tard après app.auth.token.revocation-refresh, en évinçant aussi leur UserCache. L'utilisateur se reconnecte.
+// Les listes de révocation (rechargées périodiquement depuis la base) sont consultées en mémoire.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenRevocationRepository userTokenRevocationRepository;
+    private final UserCache userCache;
+
+    @Value("${app.auth.mode:session}")
+    private String mode;
+
+    @Value("${app.auth.token.ttl:PT12H}")
+    private Duration ttl;
+
+    // Format : kid:secretBase64,kid:secretBase64 — les anciennes clés restent valides pour la vérification
+    @Value("${app.auth.token.keys:}")
+    private String keyConfiguration;
+
+    @Value("${app.auth.token.active-key:}")
+    private String activeKeyId;
+
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final Map<UUID, Instant> revoked = new ConcurrentHashMap<>();
+    private final Map<UUID, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    private record Claims(UUID userId, Instant issuedAt, Instant expiresAt, UUID jti) {
+    }
+
+    private record UserRevocation(Instant notBefore, Instant expiresAt) {
+    }
+
+    @PostConstruct
+    void loadKeys() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (String entry : keyConfiguration.split(",")) {
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalStateException("Clé de jeton mal formée dans app.auth.token.keys");
+            }
+            byte[] secret = Base64.getDecoder().decode(parts[1].trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("La clé de jeton " + parts[0] + " doit faire au moins " + MIN_KEY_BYTES + " octets");
+            }
+            keys.put(parts[0].trim(), new SecretKeySpec(secret, ALGORITHM));
+        }
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("app.auth.token.active-key ne désigne aucune clé configurée");
+        }
+        refreshRevocations();
+        log.info("Authentification par jetons signés activée ({} clé(s), clé active {})", keys.size(), activeKeyId);
+    }
+
+    public boolean isEnabled() {
+        return "token".equalsIgnoreCase(mode);
+    }
+
+    public IssuedToken issue(User user) {
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plus(ttl);
+        String payload = String.join("|",
+                user.getId().toString(),
+                Long.toString(issuedAt.getEpochSecond()),
+                Long.toString(expiresAt.getEpochSecond()),
+                UUID.randomUUID().toString());
+        String body = activeKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(body + "." + ENCODER.encodeToString(sign(keys.get(activeKeyId), body)), expiresAt);
+    }
+
+    public Optional<UserPrincipal> verify(String token) {
+        return parse(token)
+                .filter(claims -> !revoked.containsKey(claims.jti()))
+                .filter(this::issuedAfterUserRevocation)
+                .flatMap(claims -> userCache.findById(claims.userId()));
+    }
+
+    public void revoke(String token) {
+        parse(token).ifPresent(claims -> {
+            revoked.put(claims.jti(), claims.expiresAt());
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(claims.jti())
+                    .expiresAt(LocalDateTime.ofInstant(claims.expiresAt(), ZoneOffset.UTC))
+                    .build());
+        });
+    }
+
+    // Enregistrée avant la validation : le changement de rôle et la révocation sont atomiques
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        Instant notBefore = Instant.now();
+        Instant expiresAt = notBefore.plus(ttl);
+        userTokenRevocationRepository.revokeBefore(event.userId(),
+                LocalDateTime.ofInstant(notBefore, ZoneOffset.UTC),
+                LocalDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+        revokedUsers.merge(event.userId(), new UserRevocation(notBefore, expiresAt), SessionTokenService::latest);
+    }
+
+    // Propage aux autres instances les révocations enregistrées en base et purge les jetons expirés
+    @Scheduled(fixedDelayString = "${app.auth.token.revocation-refresh:PT30S}")
+    public void refreshRevocations() {
+        if (!isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        revokedTokenRepository.deleteExpired(now);
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            revoked.put(token.getJti(), token.getExpiresAt().toInstant(ZoneOffset.UTC));
+        }
+        userTokenRevocationRepository.deleteExpired(now);
+        for (UserTokenRevocation revocation : userTokenRevocationRepository.findByExpiresAtAfter(now)) {
+            UserRevocation loaded = new UserRevocation(revocation.getNotBefore().toInstant(ZoneOffset.UTC),
+                    revocation.getExpiresAt().toInstant(ZoneOffset.UTC));
+            UserRevocation known = revokedUsers.get(revocation.getUserId());
+            // Nouvelle révocation venue d'une autre instance : le principal en cache porte l'ancien rôle
+            if (known == null || known.notBefore().isBefore(loaded.notBefore())) {
+                revokedUsers.merge(revocation.getUserId(), loaded, SessionTokenService::latest);
+                userCache.evict(revocation.getUserId());
+            }
+        }
+        Instant instant = Instant.now();
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(instant));
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAt().isBefore(instant));
+    }
+
+    private boolean issuedAfterUserRevocation(Claims claims) {
+        UserRevocation revocation = revokedUsers.get(claims.userId());
+        // iat est à la seconde : un jeton émis dans la seconde du changement est refusé, par prudence
+        return revocation == null || claims.issuedAt().isAfter(revocation.notBefore());
+    }
+
+    private static UserRevocation latest(UserRevocation a, UserRevocation b) {
+        return a.notBefore().isAfter(b.notBefore()) ? a : b;
+    }
+
+    private Optional<Claims> parse(String token) {
+        if (!isEnabled() || token == null) {
+            return Optional.empty();
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot <= firstDot) {
+            return Optional.empty();
+        }
+        SecretKeySpec key = keys.get(token.substring(0, firstDot));
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        try {
+            String body = token.substring(0, lastDot);
+            byte[] signature = DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(key, body))) {
+                return Optional.empty();
+            }
+
+            String payload = new String(DECODER.decode(body.substring(firstDot + 1)), StandardCharsets.UTF_8);
+            String[] fields = payload.split("\\|");
+            if (fields.length != 4) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[2]));
+            if (!expiresAt.isAfter(Instant.now())) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(UUID.fromString(fields[0]), Instant.ofEpochSecond(Long.parseLong(fields[1])),
+                    expiresAt, UUID.fromString(fields[3])));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(SecretKeySpec key, String body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Signature du jeton impossible", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.racines_app_back.www.service.security;
+
+import com.racines_app_back.www.domain.event.UserRoleChangedEvent;
+import com.racines_app_back.www.domain.repository.UserRepository;
+import com.racines_app_back.www.exception.UserNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache borné et expirant des utilisateurs authentifiés ; évincé dès que le rôle ou la personne liée change
+@Component
+@RequiredArgsConstructor
+public class UserCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${app.user-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.user-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    private final Map<String, UUID> idsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Map<UUID, Entry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<UUID, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                    if (size() <= maxSize) {
+                        return false;
+                    }
+                    idsByEmail.remove(eldest.getValue().principal().email(), eldest.getKey());
+                    return true;
+                }
+            });
+
+    private record Entry(UserPrincipal principal, long expiresAt) {
+    }
+
+    public UserPrincipal getById(UUID userId) {
+        return findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé: " + userId));
+    }
+
+    public Optional<UserPrincipal> findById(UUID userId) {
+        UserPrincipal cached = cached(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long version = invalidations.get();
+        Optional<UserPrincipal> loaded = userRepository.findById(userId).map(UserPrincipal::of);
+        loaded.ifPresent(principal -> store(principal, version));
+        return loaded;
+    }
+
+    public Optional<UserPrincipal> findByEmail(String email) {
+        UUID userId = idsByEmail.get(email);
+        UserPrincipal cached = userId != null ? cached(userId) : null;
+        if (cached != null && cached.email().equals(email)) {
+            return Optional.of(cached);
+        }
+        long version = invalidations.get();
+        Optional<UserPrincipal> loaded = userRepository.findByEmail(email).map(UserPrincipal::of);
+        loaded.ifPresent(principal -> store(principal, version));
+        return loaded;
+    }
+
+    // Passe avant les autres écouteurs : les index reconstruits ensuite relisent un instantané à jour
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public void evict(UUID userId) {
+        invalidations.incrementAndGet();
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            idsByEmail.remove(removed.principal().email(), userId);
+        }
+    }
+
+    private UserPrincipal cached(UUID userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || System.nanoTime() - entry.expiresAt() >= 0) {
+            return null;
+        }
+        return entry.principal();
+    }
+
+    // Un chargement concurrent d'une éviction n'est pas conservé : il a pu lire l'ancien état
+    private void store(UserPrincipal principal, long version) {
+        synchronized (entries) {
+            if (invalidations.get() != version) {
+                return;
+            }
+            entries.put(principal.id(), new Entry(principal, System.nanoTime() + ttl.toNanos()));
+            idsByEmail.put(principal.email(), principal.id());
+        }
+    }
+}
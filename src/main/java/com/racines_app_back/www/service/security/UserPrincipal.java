@@ -0,0 +1,19 @@
+package com.racines_app_back.www.service.security;
+
+import com.racines_app_back.www.domain.entity.User;
+import com.racines_app_back.www.domain.enums.Role;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+// Instantané immuable de l'utilisateur authentifié, porté par l'Authentication
+public record UserPrincipal(UUID id, String email, Role role, UUID personId) implements Serializable {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getPersonId());
+    }
+
+    public boolean isSuperAdmin() {
+        return role == Role.SUPER_ADMIN;
+    }
+}
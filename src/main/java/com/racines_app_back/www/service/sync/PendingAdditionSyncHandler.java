@@ -0,0 +1,33 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.dto.ValidationRequestDTO;
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.enums.EntityType;
+import com.racines_app_back.www.domain.enums.OperationType;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.ValidationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class PendingAdditionSyncHandler implements SyncOperationHandler {
+
+    private final ValidationService validationService;
+    private final SyncPayloadReader payloadReader;
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.PENDING_ADDITION;
+    }
+
+    @Override
+    public Object apply(SyncQueue operation, UUID userId) {
+        if (operation.getOperationType() != OperationType.CREATE) {
+            throw new ValidationException("Seule la demande de validation est prise en charge");
+        }
+        return validationService.requestValidation(payloadReader.read(operation, ValidationRequestDTO.class), userId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.dto.PersonCreateDTO;
+import com.racines_app_back.www.domain.dto.PersonUpdateDTO;
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.enums.EntityType;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.PersonService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class PersonSyncHandler implements SyncOperationHandler {
+
+    private final PersonService personService;
+    private final SyncPayloadReader payloadReader;
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.PERSON;
+    }
+
+    @Override
+    public Object apply(SyncQueue operation, UUID userId) {
+        return switch (operation.getOperationType()) {
+            case CREATE -> personService.createPerson(payloadReader.read(operation, PersonCreateDTO.class), userId);
+            case UPDATE -> {
+                if (operation.getEntityId() == null) {
+                    throw new ValidationException("L'identifiant de la personne à modifier est obligatoire");
+                }
+                yield personService.updatePerson(operation.getEntityId(),
+                        payloadReader.read(operation, PersonUpdateDTO.class), userId);
+            }
+            case DELETE -> throw new ValidationException("La suppression d'une personne n'est pas prise en charge");
+        };
+    }
+}
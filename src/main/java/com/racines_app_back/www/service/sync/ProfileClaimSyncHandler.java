@@ -0,0 +1,33 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.dto.ProfileClaimCreateDTO;
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.enums.EntityType;
+import com.racines_app_back.www.domain.enums.OperationType;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.ProfileClaimService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class ProfileClaimSyncHandler implements SyncOperationHandler {
+
+    private final ProfileClaimService profileClaimService;
+    private final SyncPayloadReader payloadReader;
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.PROFILE_CLAIM;
+    }
+
+    @Override
+    public Object apply(SyncQueue operation, UUID userId) {
+        if (operation.getOperationType() != OperationType.CREATE) {
+            throw new ValidationException("Seule la création de revendication est prise en charge");
+        }
+        return profileClaimService.createClaim(payloadReader.read(operation, ProfileClaimCreateDTO.class), userId);
+    }
+}
@@ -0,0 +1,42 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.enums.EntityType;
+import com.racines_app_back.www.domain.enums.OperationType;
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.PersonService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class RelationshipSyncHandler implements SyncOperationHandler {
+
+    private final PersonService personService;
+    private final SyncPayloadReader payloadReader;
+
+    // person1Id absent : la relation part de l'entité visée par l'opération
+    record RelationshipPayload(UUID person1Id, UUID person2Id, RelationshipType relationshipType) {
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.FAMILY_RELATIONSHIP;
+    }
+
+    @Override
+    public Object apply(SyncQueue operation, UUID userId) {
+        if (operation.getOperationType() != OperationType.CREATE) {
+            throw new ValidationException("Seul l'ajout de relation est pris en charge");
+        }
+        RelationshipPayload payload = payloadReader.read(operation, RelationshipPayload.class);
+        UUID person1Id = payload.person1Id() != null ? payload.person1Id() : operation.getEntityId();
+        if (person1Id == null || payload.person2Id() == null || payload.relationshipType() == null) {
+            throw new ValidationException("Les deux personnes et le type de relation sont obligatoires");
+        }
+        return personService.addRelationship(person1Id, payload.person2Id(), payload.relationshipType(), userId);
+    }
+}
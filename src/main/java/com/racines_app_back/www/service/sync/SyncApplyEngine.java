@@ -0,0 +1,160 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.enums.EntityType;
+import com.racines_app_back.www.domain.enums.SyncStatus;
+import com.racines_app_back.www.domain.repository.SyncQueueRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Applique les opérations en attente d'un utilisateur dans l'ordre, par lots : une transaction par lot, qui réserve
+// ses lignes avant de les appliquer. Une opération en échec annule tout le lot (données, emails, événements) ;
+// l'échec est enregistré à part puis le lot est rejoué sans elle
+@Component
+@Slf4j
+public class SyncApplyEngine {
+
+    public static final int MAX_RETRIES = 3;
+
+    // Curseur initial, avant toute ligne
+    private static final LocalDateTime START_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID START_ID = new UUID(0L, 0L);
+
+    private final Map<EntityType, SyncOperationHandler> handlers = new EnumMap<>(EntityType.class);
+    private final SyncQueueRepository syncQueueRepository;
+    private final SyncPayloadReader payloadReader;
+    private final EntityManager entityManager;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${app.sync.chunk-size:50}")
+    private int chunkSize;
+
+    public SyncApplyEngine(List<SyncOperationHandler> handlers, SyncQueueRepository syncQueueRepository,
+                           SyncPayloadReader payloadReader, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager) {
+        handlers.forEach(handler -> this.handlers.put(handler.getEntityType(), handler));
+        this.syncQueueRepository = syncQueueRepository;
+        this.payloadReader = payloadReader;
+        this.entityManager = entityManager;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Renvoie les opérations traitées par cet appel, dans leur ordre d'application
+    public List<SyncQueue> apply(UUID userId) {
+        Map<UUID, SyncQueue> processed = new LinkedHashMap<>();
+        // Opérations en échec pendant cet appel, restées en attente : réessayées à la prochaine synchronisation
+        Set<UUID> skipped = new HashSet<>();
+        Cursor after = new Cursor(START_CREATED_AT, START_ID);
+
+        while (true) {
+            Cursor from = after;
+            List<SyncQueue> chunk;
+            try {
+                chunk = newTransaction.execute(status -> applyChunk(userId, from, skipped));
+            } catch (OperationFailedException e) {
+                SyncQueue failed = newTransaction.execute(status -> recordFailure(e.operationId, e.getCause()));
+                skipped.add(e.operationId);
+                if (failed != null) {
+                    processed.put(failed.getId(), failed);
+                }
+                continue;
+            }
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            chunk.forEach(operation -> processed.put(operation.getId(), operation));
+            SyncQueue last = chunk.get(chunk.size() - 1);
+            after = new Cursor(last.getCreatedAt(), last.getId());
+        }
+
+        List<SyncQueue> operations = new ArrayList<>(processed.values());
+        operations.sort(Comparator.comparing(SyncQueue::getCreatedAt).thenComparing(SyncQueue::getId));
+        return operations;
+    }
+
+    // Réserve le lot suivant puis l'applique. Si la première opération en attente est réservée par une synchronisation
+    // concurrente, on s'arrête plutôt que d'appliquer les suivantes avant elle
+    private List<SyncQueue> applyChunk(UUID userId, Cursor after, Set<UUID> skipped) {
+        int limit = chunkSize + skipped.size();
+        UUID head = syncQueueRepository.findPendingIdsAfter(userId, after.createdAt(), after.id(), limit).stream()
+                .filter(id -> !skipped.contains(id))
+                .findFirst()
+                .orElse(null);
+        List<SyncQueue> chunk = syncQueueRepository.lockPendingAfter(userId, after.createdAt(), after.id(), limit).stream()
+                .filter(operation -> !skipped.contains(operation.getId()))
+                .limit(chunkSize)
+                .toList();
+        if (chunk.isEmpty() || !chunk.get(0).getId().equals(head)) {
+            return List.of();
+        }
+
+        for (SyncQueue operation : chunk) {
+            applyOne(operation, userId);
+        }
+        return chunk;
+    }
+
+    private void applyOne(SyncQueue operation, UUID userId) {
+        String result;
+        try {
+            SyncOperationHandler handler = handlers.get(operation.getEntityType());
+            Object applied = handler.apply(operation, userId);
+            // Les erreurs SQL de l'opération doivent lui être imputées, pas à la validation du lot
+            entityManager.flush();
+            result = payloadReader.write(applied);
+        } catch (RuntimeException e) {
+            throw new OperationFailedException(operation.getId(), e);
+        }
+        operation.setStatus(SyncStatus.SYNCED);
+        operation.setResult(result);
+        operation.setErrorMessage(null);
+        operation.setSyncedAt(LocalDateTime.now());
+        log.info("Opération synchronisée avec succès: {}", operation.getId());
+    }
+
+    private SyncQueue recordFailure(UUID operationId, Throwable error) {
+        SyncQueue operation = syncQueueRepository.findById(operationId).orElse(null);
+        if (operation == null || operation.getStatus() != SyncStatus.PENDING) {
+            return operation;
+        }
+        operation.setRetryCount(operation.getRetryCount() + 1);
+        operation.setErrorMessage(error.getMessage());
+        operation.setResult(null);
+        log.error("Erreur lors de la synchronisation de l'opération {}: {}", operationId, error.getMessage());
+        if (operation.getRetryCount() >= MAX_RETRIES) {
+            operation.setStatus(SyncStatus.FAILED);
+            log.error("Opération marquée comme échouée après {} tentatives: {}", MAX_RETRIES, operationId);
+        }
+        return syncQueueRepository.save(operation);
+    }
+
+    private record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    private static class OperationFailedException extends RuntimeException {
+
+        private final UUID operationId;
+
+        OperationFailedException(UUID operationId, RuntimeException cause) {
+            super(cause.getMessage(), cause);
+            this.operationId = operationId;
+        }
+    }
+}
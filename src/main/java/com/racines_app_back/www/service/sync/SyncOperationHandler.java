@@ -0,0 +1,15 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.enums.EntityType;
+
+import java.util.UUID;
+
+// Applique les opérations d'un type d'entité en passant par le service métier correspondant ;
+// le résultat renvoyé est enregistré sur la ligne de sync_queue
+public interface SyncOperationHandler {
+
+    EntityType getEntityType();
+
+    Object apply(SyncQueue operation, UUID userId);
+}
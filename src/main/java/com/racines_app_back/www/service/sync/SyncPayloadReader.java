@@ -0,0 +1,51 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.exception.ValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class SyncPayloadReader {
+
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+
+    // Le contenu est enregistré tel que reçu puis resérialisé : une chaîne JSON contenant le document JSON
+    public <T> T read(SyncQueue operation, Class<T> type) {
+        if (operation.getPayload() == null || operation.getPayload().isBlank()) {
+            throw new ValidationException("Le contenu de l'opération est obligatoire");
+        }
+        T value;
+        try {
+            JsonNode node = jsonMapper.readTree(operation.getPayload());
+            if (node.isString()) {
+                node = jsonMapper.readTree(node.asString());
+            }
+            value = jsonMapper.treeToValue(node, type);
+        } catch (JacksonException e) {
+            throw new ValidationException("Contenu de l'opération invalide: " + e.getOriginalMessage(), e);
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining(", ")));
+        }
+        return value;
+    }
+
+    public String write(Object result) {
+        return result != null ? jsonMapper.writeValueAsString(result) : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.racines_app_back.www.service.visibility;
+
+import com.racines_app_back.www.domain.entity.FamilyRelationship;
+import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
+import com.racines_app_back.www.service.graph.FamilyGraphIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+// Famille visible depuis la personne liée d'un utilisateur : toutes les personnes à au plus
+// app.visibility.family-radius relations, quel que soit le type ou le sens de la relation.
+@Component
+@RequiredArgsConstructor
+public class FamilyCircle {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = FamilyCircle.class.getName() + ".";
+
+    private final FamilyGraphIndex graphIndex;
+    private final FamilyRelationshipRepository relationshipRepository;
+
+    @Value("${app.visibility.family-radius:1}")
+    private int radius;
+
+    // Mémorisé pour la durée de la requête HTTP : plusieurs contrôles ne relancent pas le parcours
+    public Set<UUID> around(UUID personId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return compute(personId);
+        }
+
+        String key = REQUEST_ATTRIBUTE_PREFIX + personId;
+        @SuppressWarnings("unchecked")
+        Set<UUID> circle = (Set<UUID>) request.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+        if (circle == null) {
+            circle = compute(personId);
+            request.setAttribute(key, circle, RequestAttributes.SCOPE_REQUEST);
+        }
+        return circle;
+    }
+
+    private Set<UUID> compute(UUID personId) {
+        if (graphIndex.isReady()) {
+            return graphIndex.relativesWithin(personId, radius);
+        }
+
+        // Sans index : un lot de relations par degré d'éloignement
+        Set<UUID> seen = new HashSet<>(Set.of(personId));
+        Set<UUID> frontier = Set.of(personId);
+        for (int degree = 0; degree < radius && !frontier.isEmpty(); degree++) {
+            Set<UUID> next = new HashSet<>();
+            for (FamilyRelationship rel : relationshipRepository.findAllRelationshipsByPersonIds(frontier)) {
+                if (seen.add(rel.getPerson1Id())) {
+                    next.add(rel.getPerson1Id());
+                }
+                if (seen.add(rel.getPerson2Id())) {
+                    next.add(rel.getPerson2Id());
+                }
+            }
+            frontier = next;
+        }
+        seen.remove(personId);
+        return seen;
+    }
+}
@@ -0,0 +1,173 @@
+package com.racines_app_back.www.service.visibility;
+
+import com.racines_app_back.www.domain.event.PersonCreatedEvent;
+import com.racines_app_back.www.domain.event.PersonPublishedEvent;
+import com.racines_app_back.www.domain.event.RelationshipAddedEvent;
+import com.racines_app_back.www.domain.event.UserRoleChangedEvent;
+import com.racines_app_back.www.domain.repository.PersonRepository;
+import com.racines_app_back.www.domain.repository.projection.PersonVisibility;
+import com.racines_app_back.www.service.security.UserCache;
+import com.racines_app_back.www.service.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Visibilité matérialisée par utilisateur, invalidée précisément par les événements qui l'élargissent
+// ou changent le rôle. Une réponse négative n'est pas un refus : l'appelant la confirme par le contrôle exact.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PersonVisibilityIndex {
+
+    private final UserCache userCache;
+    private final PersonRepository personRepository;
+    private final FamilyCircle familyCircle;
+
+    @Value("${app.visibility.max-users:10000}")
+    private int maxUsers;
+
+    private final ConcurrentHashMap<UUID, Integer> denseIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextDenseId = new AtomicInteger();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Map<UUID, UserVisibility> users = Collections.synchronizedMap(
+            new LinkedHashMap<UUID, UserVisibility>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, UserVisibility> eldest) {
+                    return size() > maxUsers;
+                }
+            });
+
+    // Copie sur écriture : jamais modifié une fois publié
+    private volatile BitSet publicPersons;
+
+    private record UserVisibility(UUID personId, boolean superAdmin, BitSet visible) {
+    }
+
+    public boolean isVisible(UUID userId, UUID personId) {
+        BitSet published = catalog();
+        Integer dense = denseIds.get(personId);
+        if (dense == null) {
+            return false;
+        }
+        UserVisibility visibility = visibility(userId);
+        return visibility.superAdmin() || published.get(dense) || visibility.visible().get(dense);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonCreated(PersonCreatedEvent event) {
+        int dense = intern(event.personId());
+        if (event.isPublic()) {
+            publish(dense);
+        }
+        if (event.createdBy() != null) {
+            evict(event.createdBy());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonPublished(PersonPublishedEvent event) {
+        publish(intern(event.personId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRelationshipAdded(RelationshipAddedEvent event) {
+        // Le cercle familial d'un utilisateur ne change que s'il contient déjà l'une des deux personnes
+        Set<UUID> touched = Set.of(event.person1Id(), event.person2Id());
+        Integer dense1 = denseIds.get(event.person1Id());
+        Integer dense2 = denseIds.get(event.person2Id());
+        invalidations.incrementAndGet();
+        synchronized (users) {
+            users.values().removeIf(visibility -> (visibility.personId() != null && touched.contains(visibility.personId()))
+                    || (dense1 != null && visibility.visible().get(dense1))
+                    || (dense2 != null && visibility.visible().get(dense2)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        evict(event.userId());
+    }
+
+    private BitSet catalog() {
+        BitSet published = publicPersons;
+        return published != null ? published : loadCatalog();
+    }
+
+    // Verrou partagé avec publish : une publication pendant le chargement est appliquée juste après
+    private synchronized BitSet loadCatalog() {
+        if (publicPersons != null) {
+            return publicPersons;
+        }
+        BitSet published = new BitSet();
+        for (PersonVisibility person : personRepository.findAllVisibility()) {
+            int dense = intern(person.getId());
+            if (Boolean.TRUE.equals(person.getIsPublic())) {
+                published.set(dense);
+            }
+        }
+        publicPersons = published;
+        log.info("Index de visibilité initialisé: {} personnes, {} publiques", denseIds.size(), published.cardinality());
+        return published;
+    }
+
+    private synchronized void publish(int dense) {
+        BitSet current = publicPersons;
+        if (current == null || current.get(dense)) {
+            return;
+        }
+        BitSet next = (BitSet) current.clone();
+        next.set(dense);
+        publicPersons = next;
+    }
+
+    private UserVisibility visibility(UUID userId) {
+        UserVisibility cached = users.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = invalidations.get();
+        UserPrincipal user = userCache.getById(userId);
+        UserVisibility visibility;
+        if (user.isSuperAdmin()) {
+            visibility = new UserVisibility(user.personId(), true, new BitSet());
+        } else {
+            BitSet visible = new BitSet();
+            personRepository.findIdsByCreatedBy(userId).forEach(id -> visible.set(intern(id)));
+            if (user.personId() != null) {
+                visible.set(intern(user.personId()));
+                familyCircle.around(user.personId()).forEach(id -> visible.set(intern(id)));
+            }
+            visibility = new UserVisibility(user.personId(), false, visible);
+        }
+
+        // Une invalidation survenue pendant la construction rend le résultat potentiellement périmé
+        synchronized (users) {
+            if (invalidations.get() == version) {
+                users.put(userId, visibility);
+            }
+        }
+        return visibility;
+    }
+
+    private void evict(UUID userId) {
+        invalidations.incrementAndGet();
+        users.remove(userId);
+    }
+
+    private int intern(UUID personId) {
+        return denseIds.computeIfAbsent(personId, id -> nextDenseId.getAndIncrement());
+    }
+}
@@ -0,0 +1,133 @@
+package com.racines_app_back.www.util;
+
+import com.racines_app_back.www.exception.EmailTransportUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Couche d'envoi vers l'API Brevo : délai par requête, reprises avec gigue sur 5xx/429 et erreurs réseau,
+// disjoncteur qui échoue immédiatement pendant une panne, et nombre de requêtes simultanées borné
+@Component
+@Slf4j
+public class BrevoTransport {
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    @Value("${brevo.api.key}")
+    private String apiKey;
+
+    @Value("${brevo.api.url}")
+    private String apiUrl;
+
+    @Value("${app.mail.transport.request-timeout:PT10S}")
+    private Duration requestTimeout;
+
+    @Value("${app.mail.transport.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${app.mail.transport.initial-backoff:PT0.2S}")
+    private Duration initialBackoff;
+
+    @Value("${app.mail.transport.max-backoff:PT2S}")
+    private Duration maxBackoff;
+
+    public BrevoTransport(@Qualifier("brevoWebClient") WebClient webClient,
+                          @Value("${app.mail.transport.max-concurrency:16}") int maxConcurrency,
+                          @Value("${app.mail.transport.breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${app.mail.transport.breaker.open-duration:PT30S}") Duration openDuration) {
+        this.webClient = webClient;
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+    }
+
+    public Mono<Void> post(Map<String, Object> payload) {
+        return Mono.defer(() -> {
+                    if (apiKey == null || apiKey.isBlank()) {
+                        return Mono.error(new IllegalStateException("La clé API Brevo est manquante."));
+                    }
+                    return attempt(payload);
+                })
+                .retryWhen(Retry.backoff(maxRetries, initialBackoff)
+                        .maxBackoff(maxBackoff)
+                        .jitter(0.5)
+                        .filter(this::isRetryable)
+                        .doBeforeRetry(signal -> log.warn("Nouvelle tentative d'envoi Brevo ({}): {}",
+                                signal.totalRetries() + 1, signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>(circuitBreaker.getStatus());
+        status.put("inFlight", maxConcurrency - permits.availablePermits());
+        return status;
+    }
+
+    private Mono<Void> attempt(Map<String, Object> payload) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return Mono.error(new EmailTransportUnavailableException("Service d'email momentanément indisponible"));
+        }
+        if (!permits.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            return Mono.error(new EmailTransportUnavailableException("Trop d'envois d'email simultanés"));
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        return webClient.post()
+                .uri(apiUrl + "/smtp/email")
+                .header("api-key", apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(requestTimeout)
+                .doOnSuccess(response -> circuitBreaker.onSuccess())
+                .doOnError(e -> {
+                    if (isProviderFailure(e)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                })
+                // Permis rendu avant la propagation du signal : l'envoi suivant d'un concatMap le trouve déjà libre
+                .doOnTerminate(release::run)
+                .doOnCancel(() -> {
+                    circuitBreaker.onIgnored();
+                    release.run();
+                })
+                .then();
+    }
+
+    // Panne du fournisseur : erreur serveur, limitation de débit, délai dépassé ou connexion impossible
+    private boolean isProviderFailure(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private boolean isRetryable(Throwable e) {
+        return !(e instanceof EmailTransportUnavailableException) && isProviderFailure(e);
+    }
+}
@@ -0,0 +1,4 @@
+package com.racines_app_back.www.util;
+
+public record EmailMessage(String to, String subject, String htmlContent) {
+}
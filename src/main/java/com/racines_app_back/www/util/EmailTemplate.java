@@ -0,0 +1,92 @@
+package com.racines_app_back.www.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Gabarit découpé une fois pour toutes en segments littéraux et variables {{nom}} ;
+// le rendu concatène les segments dans un tampon réutilisé par thread, valeurs échappées en HTML.
+// {{{nom}}} insère un fragment déjà rendu (gabarit imbriqué) sans échappement
+public final class EmailTemplate {
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] raw;
+    private final int estimatedLength;
+
+    private EmailTemplate(String[] literals, String[] variables, boolean[] raw, int estimatedLength) {
+        this.literals = literals;
+        this.variables = variables;
+        this.raw = raw;
+        this.estimatedLength = estimatedLength;
+    }
+
+    // literals[i] précède variables[i] ; le dernier littéral termine le gabarit
+    public static EmailTemplate parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            boolean unescaped = open >= 0 && source.startsWith("{{{", open);
+            String closing = unescaped ? "}}}" : "}}";
+            int close = open < 0 ? -1 : source.indexOf(closing, open + closing.length());
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            variables.add(source.substring(open + closing.length(), close).trim());
+            raw.add(unescaped);
+            position = close + closing.length();
+        }
+        boolean[] rawFlags = new boolean[raw.size()];
+        for (int i = 0; i < rawFlags.length; i++) {
+            rawFlags[i] = raw.get(i);
+        }
+        return new EmailTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new), rawFlags, source.length());
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(estimatedLength + 256);
+        for (int i = 0; i < variables.length; i++) {
+            buffer.append(literals[i]);
+            String value = values.get(variables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Variable de gabarit manquante: " + variables[i]);
+            }
+            if (raw[i]) {
+                buffer.append(value);
+            } else {
+                escapeHtml(value, buffer);
+            }
+        }
+        buffer.append(literals[variables.length]);
+        String rendered = buffer.toString();
+        // Un rendu exceptionnellement long ne doit pas garder un gros tampon attaché au thread
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    static void escapeHtml(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.racines_app_back.www.util;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Gabarits d'email chargés depuis templates/email/ et analysés au premier usage, puis gardés en cache par langue.
+// Variante nom_langue.html si elle existe, sinon nom.html (français)
+@Component
+public class EmailTemplates {
+
+    public static final Locale DEFAULT_LOCALE = Locale.FRENCH;
+
+    private static final String LOCATION = "templates/email/";
+
+    private final Map<String, EmailTemplate> cache = new ConcurrentHashMap<>();
+
+    public String render(String name, Locale locale, Map<String, String> values) {
+        String language = locale != null ? locale.getLanguage() : DEFAULT_LOCALE.getLanguage();
+        return cache.computeIfAbsent(name + "_" + language, key -> load(name, language)).render(values);
+    }
+
+    public String render(String name, Map<String, String> values) {
+        return render(name, DEFAULT_LOCALE, values);
+    }
+
+    private EmailTemplate load(String name, String language) {
+        ClassPathResource localized = new ClassPathResource(LOCATION + name + "_" + language + ".html");
+        ClassPathResource resource = localized.exists() ? localized : new ClassPathResource(LOCATION + name + ".html");
+        try (InputStream input = resource.getInputStream()) {
+            return EmailTemplate.parse(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gabarit d'email introuvable: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Table: user_token_revocations
+-- Date avant laquelle les jetons signés d'un utilisateur sont refusés (changement de rôle ou de personne liée),
+-- partagée entre instances ; la ligne expire quand tous les jetons antérieurs ont expiré
+CREATE TABLE user_token_revocations (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    not_before TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_user_token_revocation_expires_at ON user_token_revocations(expires_at);
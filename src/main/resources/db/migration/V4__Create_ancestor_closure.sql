@@ -0,0 +1,12 @@
+-- Table de fermeture transitive de la filiation : une ligne par couple (ancêtre, descendant)
+-- avec la plus courte distance en générations
+CREATE TABLE ancestor_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+    CONSTRAINT pk_ancestor_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES persons(id) ON DELETE CASCADE,
+    CONSTRAINT fk_closure_descendant FOREIGN KEY (descendant_id) REFERENCES persons(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_closure_descendant ON ancestor_closure(descendant_id, depth);
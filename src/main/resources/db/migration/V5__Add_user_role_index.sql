@@ -0,0 +1,2 @@
+-- Index partiel pour retrouver les administrateurs sans parcourir la table des utilisateurs
+CREATE INDEX IF NOT EXISTS idx_user_role_super_admin ON users(role) WHERE role = 'SUPER_ADMIN';
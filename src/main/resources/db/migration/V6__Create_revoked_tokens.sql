@@ -0,0 +1,9 @@
+-- Table: revoked_tokens
+-- Jetons signés révoqués avant expiration (déconnexion), partagés entre instances
+CREATE TABLE revoked_tokens (
+    jti UUID PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_token_expires_at ON revoked_tokens(expires_at);
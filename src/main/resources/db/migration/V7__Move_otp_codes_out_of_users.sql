@@ -0,0 +1,15 @@
+-- Table: otp_codes
+-- Codes à usage unique hors de la table users (stockage JDBC partagé entre instances)
+CREATE TABLE otp_codes (
+    email VARCHAR(255) PRIMARY KEY,
+    code_hash VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_otp_code_expires_at ON otp_codes(expires_at);
+
+-- Les codes ne sont plus écrits sur la ligne de l'utilisateur
+DROP INDEX IF EXISTS idx_user_otp_code;
+ALTER TABLE users DROP COLUMN IF EXISTS otp_code;
+ALTER TABLE users DROP COLUMN IF EXISTS otp_expires_at;
@@ -0,0 +1,2 @@
+-- Résultat de l'application de chaque opération synchronisée (entité créée ou modifiée, en JSON)
+ALTER TABLE sync_queue ADD COLUMN result TEXT;
@@ -0,0 +1,152 @@
+package com.racines_app_back.www.service;
+
+import com.racines_app_back.www.domain.dto.KinshipDTO;
+import com.racines_app_back.www.domain.dto.KinshipStepDTO;
+import com.racines_app_back.www.domain.entity.Person;
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.event.RelationshipAddedEvent;
+import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
+import com.racines_app_back.www.domain.repository.PersonRepository;
+import com.racines_app_back.www.service.graph.FamilyGraphIndex;
+import com.racines_app_back.www.service.mapper.PersonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Arbre de test : G a deux enfants P1 et P2, C1 est l'enfant de P1, C2 et D2 ceux de P2, E2 l'enfant de C2 ; S épouse P1
+class KinshipServiceTest {
+
+	private final UUID user = UUID.randomUUID();
+	private final UUID g = UUID.randomUUID();
+	private final UUID p1 = UUID.randomUUID();
+	private final UUID p2 = UUID.randomUUID();
+	private final UUID c1 = UUID.randomUUID();
+	private final UUID c2 = UUID.randomUUID();
+	private final UUID d2 = UUID.randomUUID();
+	private final UUID e2 = UUID.randomUUID();
+	private final UUID s = UUID.randomUUID();
+
+	private final Set<UUID> hidden = new HashSet<>();
+	private FamilyGraphIndex graphIndex;
+	private KinshipService service;
+
+	@BeforeEach
+	void setUp() {
+		FamilyRelationshipRepository relationshipRepository = mock(FamilyRelationshipRepository.class);
+		when(relationshipRepository.findAllEdges()).thenReturn(List.of());
+		graphIndex = new FamilyGraphIndex(relationshipRepository);
+		graphIndex.load();
+		parent(p1, g);
+		parent(p2, g);
+		parent(c1, p1);
+		parent(c2, p2);
+		parent(d2, p2);
+		parent(e2, c2);
+		graphIndex.addEdge(new RelationshipAddedEvent(p1, s, RelationshipType.SPOUSE, LocalDateTime.now()));
+
+		PersonRepository personRepository = mock(PersonRepository.class);
+		when(personRepository.findAllById(any())).thenAnswer(invocation -> {
+			Iterable<UUID> ids = invocation.getArgument(0);
+			return StreamSupport.stream(ids.spliterator(), false)
+					.map(id -> Person.builder().id(id).nom("Nom").prenom("Prénom").build())
+					.toList();
+		});
+		PermissionService permissionService = mock(PermissionService.class);
+		when(permissionService.filterViewable(any(), any())).thenAnswer(invocation -> {
+			Collection<Person> persons = invocation.getArgument(1);
+			return persons.stream().map(Person::getId).filter(id -> !hidden.contains(id)).collect(Collectors.toSet());
+		});
+
+		service = new KinshipService(graphIndex, personRepository, permissionService, new PersonMapper());
+		ReflectionTestUtils.setField(service, "maxVisited", 1000);
+		ReflectionTestUtils.setField(service, "maxDistance", 16);
+	}
+
+	@Test
+	void directLineageLabels() {
+		assertThat(label(c1, p1)).isEqualTo("parent");
+		assertThat(label(c1, g)).isEqualTo("grand-parent");
+		assertThat(label(g, c1)).isEqualTo("petit-enfant");
+		assertThat(label(g, e2)).isEqualTo("arrière-petit-enfant");
+	}
+
+	@Test
+	void collateralLabels() {
+		assertThat(label(p1, p2)).isEqualTo("frère/sœur");
+		assertThat(label(c1, p2)).isEqualTo("oncle/tante");
+		assertThat(label(p1, c2)).isEqualTo("neveu/nièce");
+		assertThat(label(p1, e2)).isEqualTo("petit-neveu/petite-nièce");
+		assertThat(label(c1, c2)).isEqualTo("cousin(e) germain(e)");
+		assertThat(label(c1, e2)).isEqualTo("parent au 5e degré");
+	}
+
+	@Test
+	void allianceLabels() {
+		assertThat(label(p1, s)).isEqualTo("conjoint(e)");
+		assertThat(label(c1, s)).isEqualTo("parent par alliance");
+	}
+
+	@Test
+	void commonAncestorsAndDistance() {
+		KinshipDTO kinship = service.findKinship(c1, c2, user);
+
+		assertThat(kinship.isRelated()).isTrue();
+		assertThat(kinship.getDistance()).isEqualTo(4);
+		assertThat(kinship.getCommonAncestors()).extracting("id").containsExactly(g);
+		assertThat(kinship.getPath()).extracting(KinshipStepDTO::getPersonId).containsExactly(p1, g, p2, c2);
+	}
+
+	@Test
+	void unrelatedPersonsReportNoPath() {
+		UUID stranger = UUID.randomUUID();
+		graphIndex.addEdge(new RelationshipAddedEvent(stranger, UUID.randomUUID(), RelationshipType.SIBLING, LocalDateTime.now()));
+
+		KinshipDTO kinship = service.findKinship(c1, stranger, user);
+
+		assertThat(kinship.isRelated()).isFalse();
+		assertThat(kinship.getPath()).isEmpty();
+		assertThat(kinship.isSearchExhausted()).isFalse();
+	}
+
+	@Test
+	void stepsThroughHiddenPersonsAreCollapsedAndAnonymous() {
+		hidden.add(g);
+		hidden.add(p2);
+
+		KinshipDTO kinship = service.findKinship(c1, c2, user);
+
+		assertThat(kinship.getLabel()).isEqualTo("cousin(e) germain(e)");
+		assertThat(kinship.getDistance()).isEqualTo(4);
+		assertThat(kinship.getCommonAncestors()).isEmpty();
+		List<KinshipStepDTO> path = kinship.getPath();
+		assertThat(path).hasSize(3);
+		assertThat(path.get(0).getPersonId()).isEqualTo(p1);
+		assertThat(path.get(1).isHidden()).isTrue();
+		assertThat(path.get(1).getPersonId()).isNull();
+		assertThat(path.get(1).getRelationshipType()).isNull();
+		assertThat(path.get(2).getPersonId()).isEqualTo(c2);
+		assertThat(path.get(2).getRelationshipType()).isNull();
+	}
+
+	private String label(UUID personId, UUID relatedPersonId) {
+		return service.findKinship(personId, relatedPersonId, user).getLabel();
+	}
+
+	private void parent(UUID child, UUID parent) {
+		graphIndex.addEdge(new RelationshipAddedEvent(child, parent, RelationshipType.PARENT, LocalDateTime.now()));
+	}
+}
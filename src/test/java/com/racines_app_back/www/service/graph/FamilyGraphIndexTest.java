@@ -0,0 +1,186 @@
+package com.racines_app_back.www.service.graph;
+
+import com.racines_app_back.www.domain.enums.RelationshipType;
+import com.racines_app_back.www.domain.event.RelationshipAddedEvent;
+import com.racines_app_back.www.domain.repository.FamilyRelationshipRepository;
+import com.racines_app_back.www.domain.repository.projection.RelationshipEdge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Famille de test : grand-parent G, ses enfants P1 et P2, et leurs enfants C1 et C2 (cousins germains).
+// La filiation mélange les deux encodages : (enfant, parent, PARENT) et (parent, enfant, CHILD)
+class FamilyGraphIndexTest {
+
+	private static final LocalDateTime LOADED_AT = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+	private final UUID g = UUID.randomUUID();
+	private final UUID p1 = UUID.randomUUID();
+	private final UUID p2 = UUID.randomUUID();
+	private final UUID c1 = UUID.randomUUID();
+	private final UUID c2 = UUID.randomUUID();
+
+	private FamilyRelationshipRepository repository;
+	private FamilyGraphIndex index;
+	private List<RelationshipEdge> edges;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(FamilyRelationshipRepository.class);
+		index = new FamilyGraphIndex(repository);
+		edges = new ArrayList<>(List.of(
+				edge(p1, g, RelationshipType.PARENT),
+				edge(g, p2, RelationshipType.CHILD),
+				edge(c1, p1, RelationshipType.PARENT),
+				edge(c2, p2, RelationshipType.PARENT)));
+		when(repository.count()).thenAnswer(invocation -> (long) edges.size());
+		when(repository.findMaxCreatedAt()).thenReturn(LOADED_AT);
+		when(repository.findAllEdges()).thenAnswer(invocation -> List.copyOf(edges));
+	}
+
+	@Test
+	void loadBuildsTheIndexFromAllEdges() {
+		index.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.areDirectlyRelated(c1, p1)).isTrue();
+		assertThat(index.areDirectlyRelated(p1, c1)).isTrue();
+		assertThat(index.areDirectlyRelated(c1, c2)).isFalse();
+		assertThat(index.directRelatives(g)).containsExactlyInAnyOrder(p1, p2);
+		assertThat(index.relativesWithin(c1, 2)).containsExactlyInAnyOrder(p1, g);
+	}
+
+	@Test
+	void traverseFollowsOneRelationshipTypeWithDepths() {
+		index.load();
+
+		FamilyGraphIndex.Traversal ancestors = index.traverse(c1, RelationshipType.PARENT, 5, node -> true);
+
+		assertThat(ancestors.personIds()).containsExactly(p1, g);
+		assertThat(ancestors.depth(0)).isEqualTo(1);
+		assertThat(ancestors.depth(1)).isEqualTo(2);
+		assertThat(ancestors.parentId(1)).isEqualTo(p1);
+		assertThat(index.traverse(c1, RelationshipType.PARENT, 1, node -> true).personIds()).containsExactly(p1);
+	}
+
+	@Test
+	void ancestorDepthsAcceptBothFiliationEncodings() {
+		index.load();
+
+		assertThat(index.ancestorDepths(c1, 10, 1000)).containsExactly(Map.entry(c1, 0), Map.entry(p1, 1), Map.entry(g, 2));
+		assertThat(index.ancestorDepths(c2, 10, 1000)).containsExactly(Map.entry(c2, 0), Map.entry(p2, 1), Map.entry(g, 2));
+		assertThat(index.ancestorDepths(c2, 1, 1000)).containsOnlyKeys(c2, p2);
+	}
+
+	@Test
+	void duplicateEdgeIsIgnored() {
+		index.load();
+
+		index.addEdge(new RelationshipAddedEvent(c1, p1, RelationshipType.PARENT, LOADED_AT));
+
+		assertThat(index.traverse(c1, RelationshipType.PARENT, 1, node -> true).size()).isEqualTo(1);
+		assertThat(index.directRelatives(c1)).containsExactly(p1);
+	}
+
+	@Test
+	void addEdgeInternsNewPersonsIncrementally() {
+		index.load();
+		UUID grandChild = UUID.randomUUID();
+
+		index.addEdge(new RelationshipAddedEvent(c1, grandChild, RelationshipType.CHILD, LOADED_AT.plusMinutes(1)));
+
+		assertThat(index.areDirectlyRelated(grandChild, c1)).isTrue();
+		assertThat(index.ancestorDepths(grandChild, 10, 1000)).containsEntry(g, 3);
+		assertThat(ReflectionTestUtils.getField(index, "highWaterMark")).isEqualTo(LOADED_AT.plusMinutes(1));
+	}
+
+	@Test
+	void shortestPathBetweenCousinsGoesThroughTheGrandparent() {
+		index.load();
+
+		FamilyGraphIndex.PathSearch search = index.shortestPath(c1, c2, 1000, 16);
+
+		assertThat(search.exhausted()).isFalse();
+		assertThat(search.steps()).extracting(FamilyGraphIndex.PathStep::personId).containsExactly(p1, g, p2, c2);
+		// c1 -> p1 : (c1, p1, PARENT) enregistrée dans le sens du chemin
+		assertThat(search.steps().get(0).relationshipType()).isEqualTo(RelationshipType.PARENT);
+		assertThat(search.steps().get(0).reverse()).isFalse();
+		// p2 -> c2 : (c2, p2, PARENT) enregistrée dans l'autre sens
+		assertThat(search.steps().get(3).reverse()).isTrue();
+	}
+
+	@Test
+	void shortestPathStopsWhenTheBudgetIsExhausted() {
+		index.load();
+
+		FamilyGraphIndex.PathSearch search = index.shortestPath(c1, c2, 3, 16);
+
+		assertThat(search.exhausted()).isTrue();
+		assertThat(search.steps()).isEmpty();
+	}
+
+	@Test
+	void shortestPathRespectsMaxDistance() {
+		index.load();
+
+		FamilyGraphIndex.PathSearch search = index.shortestPath(c1, c2, 1000, 3);
+
+		assertThat(search.exhausted()).isFalse();
+		assertThat(search.steps()).isEmpty();
+	}
+
+	@Test
+	void edgeAddedDuringLoadIsReplayed() {
+		UUID late = UUID.randomUUID();
+		when(repository.findAllEdges()).thenAnswer(invocation -> {
+			index.addEdge(new RelationshipAddedEvent(late, c2, RelationshipType.PARENT, LOADED_AT.plusSeconds(5)));
+			return List.copyOf(edges);
+		});
+
+		index.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.areDirectlyRelated(late, c2)).isTrue();
+		assertThat(ReflectionTestUtils.getField(index, "highWaterMark")).isEqualTo(LOADED_AT.plusSeconds(5));
+	}
+
+	@Test
+	void failedLoadStopsBuffering() {
+		when(repository.findAllEdges()).thenThrow(new IllegalStateException("base indisponible"));
+
+		index.load();
+		index.addEdge(new RelationshipAddedEvent(c1, c2, RelationshipType.COUSIN, LOADED_AT));
+
+		assertThat(index.isReady()).isFalse();
+		assertThat((List<?>) ReflectionTestUtils.getField(index, "pendingEdges")).isEmpty();
+	}
+
+	private static RelationshipEdge edge(UUID person1Id, UUID person2Id, RelationshipType type) {
+		return new RelationshipEdge() {
+			@Override
+			public UUID getPerson1Id() {
+				return person1Id;
+			}
+
+			@Override
+			public UUID getPerson2Id() {
+				return person2Id;
+			}
+
+			@Override
+			public RelationshipType getRelationshipType() {
+				return type;
+			}
+		};
+	}
+}
@@ -0,0 +1,188 @@
+package com.racines_app_back.www.service.mail;
+
+import com.racines_app_back.www.domain.entity.EmailOutbox;
+import com.racines_app_back.www.domain.enums.EmailOutboxStatus;
+import com.racines_app_back.www.domain.repository.EmailOutboxRepository;
+import com.racines_app_back.www.util.BrevoEmailService;
+import com.racines_app_back.www.util.StubBrevoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+// Dispatcher, service de file et transport réels ; seule la base est simulée, Brevo est un serveur HTTP local
+class EmailOutboxDispatcherTest {
+
+	private StubBrevoServer brevo;
+	private EmailOutboxRepository repository;
+	private EmailOutboxService outboxService;
+	private EmailOutboxDispatcher dispatcher;
+	private CountDownLatch recorded;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		brevo = new StubBrevoServer();
+		repository = mock(EmailOutboxRepository.class);
+
+		EmailOutboxService service = new EmailOutboxService(repository);
+		ReflectionTestUtils.setField(service, "maxAttempts", 3);
+		ReflectionTestUtils.setField(service, "initialBackoff", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(service, "maxBackoff", Duration.ofHours(1));
+		ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(5));
+		outboxService = spy(service);
+		recorded = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			invocation.callRealMethod();
+			recorded.countDown();
+			return null;
+		}).when(outboxService).recordResults(any());
+
+		BrevoEmailService emailService = new BrevoEmailService(brevo.transport(4, 100, Duration.ofSeconds(30)), null);
+		ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@racines.test");
+
+		dispatcher = new EmailOutboxDispatcher(outboxService, emailService);
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+		ReflectionTestUtils.setField(dispatcher, "concurrency", 4);
+		ReflectionTestUtils.setField(dispatcher, "sendTimeout", Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		brevo.close();
+	}
+
+	@Test
+	void sentRowsAreMarkedSentAndIdenticalContentSharesOneRequest() throws Exception {
+		EmailOutbox first = row("a@racines.test", "Notification", 0);
+		EmailOutbox second = row("b@racines.test", "Notification", 0);
+		EmailOutbox other = row("c@racines.test", "Autre", 0);
+		queue(first, second, other);
+
+		dispatchAndAwait();
+
+		assertThat(List.of(first, second, other)).allSatisfy(row -> {
+			assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+			assertThat(row.getAttempts()).isZero();
+		});
+		assertThat(brevo.requestCount()).isEqualTo(2);
+		assertThat(brevo.bodies()).anySatisfy(body -> assertThat(body)
+				.contains("messageVersions", "a@racines.test", "b@racines.test"));
+	}
+
+	@Test
+	void providerFailureBacksOffTheRow() throws Exception {
+		brevo.respondWith(500, 500, 500);
+		EmailOutbox row = row("a@racines.test", "Notification", 0);
+		queue(row);
+
+		dispatchAndAwait();
+
+		// Une tentative de file = requête initiale + deux reprises du transport
+		assertThat(brevo.requestCount()).isEqualTo(3);
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+		assertThat(row.getAttempts()).isEqualTo(1);
+		assertThat(row.getLastError()).contains("500");
+		assertThat(row.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(30), within(5, SECONDS));
+	}
+
+	@Test
+	void rowIsDeadAfterMaxAttempts() throws Exception {
+		brevo.respondWith(429, 429, 429);
+		EmailOutbox row = row("a@racines.test", "Notification", 2);
+		queue(row);
+
+		dispatchAndAwait();
+
+		assertThat(row.getAttempts()).isEqualTo(3);
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+		assertThat(row.getLastError()).contains("429");
+	}
+
+	@Test
+	void clientErrorIsNeitherRetriedNorRequeued() throws Exception {
+		brevo.respondWith(400);
+		EmailOutbox row = row("a@racines.test", "Notification", 0);
+		queue(row);
+
+		dispatchAndAwait();
+
+		assertThat(brevo.requestCount()).isEqualTo(1);
+		assertThat(row.getAttempts()).isEqualTo(1);
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+		assertThat(row.getLastError()).contains("400");
+	}
+
+	@Test
+	void rejectedBatchFallsBackToOneSendPerRecipient() throws Exception {
+		// Lot refusé, puis a et b acceptés seuls, l'adresse invalide refusée seule
+		brevo.respondWith(400, 201, 201, 400);
+		EmailOutbox first = row("a@racines.test", "Notification", 0);
+		EmailOutbox second = row("b@racines.test", "Notification", 0);
+		EmailOutbox invalid = row("invalide@", "Notification", 0);
+		queue(first, second, invalid);
+
+		dispatchAndAwait();
+
+		assertThat(brevo.requestCount()).isEqualTo(4);
+		assertThat(brevo.bodies().get(0)).contains("messageVersions");
+		assertThat(brevo.bodies().subList(1, 4)).noneSatisfy(body -> assertThat(body).contains("messageVersions"));
+		assertThat(first.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+		assertThat(second.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+		assertThat(invalid.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+		assertThat(invalid.getAttempts()).isEqualTo(1);
+	}
+
+	@Test
+	void authenticationErrorIsRequeued() throws Exception {
+		brevo.respondWith(401);
+		EmailOutbox first = row("a@racines.test", "Notification", 0);
+		EmailOutbox second = row("b@racines.test", "Notification", 0);
+		queue(first, second);
+
+		dispatchAndAwait();
+
+		// Clé d'API refusée : aucun envoi individuel, les lignes restent en file
+		assertThat(brevo.requestCount()).isEqualTo(1);
+		assertThat(List.of(first, second)).allSatisfy(row -> {
+			assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+			assertThat(row.getAttempts()).isEqualTo(1);
+		});
+	}
+
+	private void queue(EmailOutbox... rows) {
+		when(repository.lockDue(any(), anyInt())).thenReturn(List.of(rows));
+		when(repository.findAllById(any())).thenReturn(List.of(rows));
+	}
+
+	private void dispatchAndAwait() throws InterruptedException {
+		dispatcher.dispatch();
+		assertThat(recorded.await(10, TimeUnit.SECONDS)).as("résultats enregistrés").isTrue();
+	}
+
+	private static EmailOutbox row(String recipient, String subject, int attempts) {
+		return EmailOutbox.builder()
+				.id(UUID.randomUUID())
+				.recipient(recipient)
+				.subject(subject)
+				.htmlContent("<p>" + subject + "</p>")
+				.attempts(attempts)
+				.build();
+	}
+}
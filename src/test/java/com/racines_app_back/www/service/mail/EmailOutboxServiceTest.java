@@ -0,0 +1,143 @@
+package com.racines_app_back.www.service.mail;
+
+import com.racines_app_back.www.domain.entity.EmailOutbox;
+import com.racines_app_back.www.domain.enums.EmailOutboxStatus;
+import com.racines_app_back.www.domain.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxServiceTest {
+
+	private EmailOutboxRepository repository;
+	private EmailOutboxService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(EmailOutboxRepository.class);
+		service = new EmailOutboxService(repository);
+		ReflectionTestUtils.setField(service, "maxAttempts", 8);
+		ReflectionTestUtils.setField(service, "initialBackoff", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(service, "maxBackoff", Duration.ofHours(1));
+		ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(5));
+	}
+
+	@Test
+	void claimDuePushesBackClaimedRowsByTheLease() {
+		EmailOutbox row = row(0);
+		when(repository.lockDue(any(), anyInt())).thenReturn(List.of(row));
+
+		assertThat(service.claimDue(10)).containsExactly(row);
+		assertThat(row.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusMinutes(5), within(5, SECONDS));
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+	}
+
+	@Test
+	void successMarksRowSent() {
+		EmailOutbox row = row(2);
+		row.setLastError("503");
+		stubFind(row);
+
+		service.recordResults(List.of(new EmailOutboxService.DeliveryResult(row.getId(), null)));
+
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+		assertThat(row.getSentAt()).isNotNull();
+		assertThat(row.getLastError()).isNull();
+		assertThat(row.getAttempts()).isEqualTo(2);
+	}
+
+	@Test
+	void failureSchedulesExponentialBackoff() {
+		EmailOutbox first = row(0);
+		EmailOutbox fourth = row(3);
+		stubFind(first, fourth);
+
+		service.recordResults(List.of(
+				new EmailOutboxService.DeliveryResult(first.getId(), "500 Internal Server Error"),
+				new EmailOutboxService.DeliveryResult(fourth.getId(), "429 Too Many Requests")));
+
+		assertThat(first.getAttempts()).isEqualTo(1);
+		assertThat(first.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+		assertThat(first.getLastError()).isEqualTo("500 Internal Server Error");
+		assertThat(first.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(30), within(5, SECONDS));
+		// 30 s × 2³
+		assertThat(fourth.getAttempts()).isEqualTo(4);
+		assertThat(fourth.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(240), within(5, SECONDS));
+	}
+
+	@Test
+	void backoffIsCappedAtMaxBackoff() {
+		ReflectionTestUtils.setField(service, "maxAttempts", 50);
+		EmailOutbox row = row(30);
+		stubFind(row);
+
+		service.recordResults(List.of(new EmailOutboxService.DeliveryResult(row.getId(), "timeout")));
+
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+		assertThat(row.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusHours(1), within(5, SECONDS));
+	}
+
+	@Test
+	void rowIsDeadAfterMaxAttempts() {
+		EmailOutbox row = row(7);
+		LocalDateTime nextAttemptAt = row.getNextAttemptAt();
+		stubFind(row);
+
+		service.recordResults(List.of(new EmailOutboxService.DeliveryResult(row.getId(), "500 Internal Server Error")));
+
+		assertThat(row.getAttempts()).isEqualTo(8);
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+		assertThat(row.getNextAttemptAt()).isEqualTo(nextAttemptAt);
+	}
+
+	@Test
+	void permanentFailureIsDeadOnFirstAttempt() {
+		EmailOutbox row = row(0);
+		stubFind(row);
+
+		service.recordResults(List.of(new EmailOutboxService.DeliveryResult(row.getId(), "400 Bad Request", true)));
+
+		assertThat(row.getAttempts()).isEqualTo(1);
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+		assertThat(row.getLastError()).isEqualTo("400 Bad Request");
+	}
+
+	@Test
+	void rowsNoLongerPendingAreLeftUntouched() {
+		EmailOutbox row = row(7);
+		row.setStatus(EmailOutboxStatus.DEAD);
+		stubFind(row);
+
+		service.recordResults(List.of(new EmailOutboxService.DeliveryResult(row.getId(), null)));
+
+		assertThat(row.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+		assertThat(row.getSentAt()).isNull();
+	}
+
+	private void stubFind(EmailOutbox... rows) {
+		when(repository.findAllById(any())).thenReturn(List.of(rows));
+	}
+
+	private static EmailOutbox row(int attempts) {
+		return EmailOutbox.builder()
+				.id(UUID.randomUUID())
+				.recipient("admin@racines.test")
+				.subject("Sujet")
+				.htmlContent("<p>Bonjour</p>")
+				.attempts(attempts)
+				.build();
+	}
+}
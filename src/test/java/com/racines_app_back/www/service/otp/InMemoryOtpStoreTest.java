@@ -0,0 +1,112 @@
+package com.racines_app_back.www.service.otp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest {
+
+	private static final String EMAIL = "jean.dupont@example.com";
+	private static final String CODE = "482913";
+
+	private InMemoryOtpStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new InMemoryOtpStore();
+		ReflectionTestUtils.setField(store, "maxAttempts", 5);
+		ReflectionTestUtils.setField(store, "tick", Duration.ofSeconds(1));
+	}
+
+	@Test
+	void wheelPurgesOnlyAtTheDeadlineWhenTheTtlSpansSeveralTurns() {
+		// 600 tics pour une roue de 512 compartiments : le compartiment est visité une première fois avant l'échéance
+		store.put(EMAIL, CODE, Duration.ofMinutes(10));
+
+		advance(600);
+		assertThat(entries()).containsKey(EMAIL);
+
+		advance(1);
+		assertThat(entries()).doesNotContainKey(EMAIL);
+		assertThat(store.verify(EMAIL, CODE)).isFalse();
+	}
+
+	@Test
+	void staleExpiryDoesNotPurgeAReplacementCode() {
+		store.put(EMAIL, "111111", Duration.ofSeconds(5));
+		store.put(EMAIL, CODE, Duration.ofMinutes(10));
+
+		advance(10);
+
+		assertThat(store.verify(EMAIL, "111111")).isFalse();
+		assertThat(store.verify(EMAIL, CODE)).isTrue();
+	}
+
+	@Test
+	void expiredCodeIsRejectedBeforeThePurge() {
+		store.put(EMAIL, CODE, Duration.ZERO);
+
+		assertThat(store.verify(EMAIL, CODE)).isFalse();
+		assertThat(entries()).doesNotContainKey(EMAIL);
+	}
+
+	@Test
+	void codeIsSingleUse() {
+		store.put(EMAIL, CODE, Duration.ofMinutes(10));
+
+		assertThat(store.verify(EMAIL, CODE)).isTrue();
+		assertThat(store.verify(EMAIL, CODE)).isFalse();
+	}
+
+	@Test
+	void codeStillValidAfterFewerFailuresThanTheLimit() {
+		store.put(EMAIL, CODE, Duration.ofMinutes(10));
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(store.verify(EMAIL, "000000")).isFalse();
+		}
+
+		assertThat(store.verify(EMAIL, CODE)).isTrue();
+	}
+
+	@Test
+	void attemptsLimitBurnsTheCode() {
+		store.put(EMAIL, CODE, Duration.ofMinutes(10));
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(store.verify(EMAIL, "000000")).isFalse();
+		}
+
+		assertThat(store.verify(EMAIL, CODE)).isFalse();
+		assertThat(entries()).doesNotContainKey(EMAIL);
+	}
+
+	@Test
+	void comparisonRejectsPrefixesAndLongerCodes() {
+		store.put(EMAIL, CODE, Duration.ofMinutes(10));
+
+		assertThat(store.verify(EMAIL, "48291")).isFalse();
+		assertThat(store.verify(EMAIL, "4829130")).isFalse();
+		assertThat(store.verify(EMAIL, "")).isFalse();
+		assertThat(store.verify(EMAIL, null)).isFalse();
+		assertThat(store.verify("autre@example.com", CODE)).isFalse();
+
+		assertThat(store.verify(EMAIL, CODE)).isTrue();
+	}
+
+	private void advance(int ticks) {
+		for (int i = 0; i < ticks; i++) {
+			store.advance();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, ?> entries() {
+		return (Map<String, ?>) ReflectionTestUtils.getField(store, "entries");
+	}
+}
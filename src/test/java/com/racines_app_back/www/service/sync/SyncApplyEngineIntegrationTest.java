@@ -0,0 +1,242 @@
+package com.racines_app_back.www.service.sync;
+
+import com.racines_app_back.www.domain.dto.SyncOperationDTO;
+import com.racines_app_back.www.domain.entity.Person;
+import com.racines_app_back.www.domain.entity.SyncQueue;
+import com.racines_app_back.www.domain.entity.User;
+import com.racines_app_back.www.domain.enums.EntityType;
+import com.racines_app_back.www.domain.enums.OperationType;
+import com.racines_app_back.www.domain.enums.Role;
+import com.racines_app_back.www.domain.enums.SyncStatus;
+import com.racines_app_back.www.domain.repository.EmailOutboxRepository;
+import com.racines_app_back.www.domain.repository.PersonRepository;
+import com.racines_app_back.www.domain.repository.SyncQueueRepository;
+import com.racines_app_back.www.domain.repository.UserRepository;
+import com.racines_app_back.www.exception.ValidationException;
+import com.racines_app_back.www.service.SyncService;
+import com.racines_app_back.www.service.mail.EmailOutboxService;
+import com.racines_app_back.www.util.EmailMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Base réelle, comme RacinesAppBackApplicationTests : les lignes sont réservées par FOR UPDATE SKIP LOCKED.
+// Les demandes d'ajout passent par un gestionnaire espionné qui écrit une personne, un email et un événement
+// avant d'échouer, pour vérifier que rien de l'opération en échec ne survit
+@SpringBootTest
+class SyncApplyEngineIntegrationTest {
+
+	@Autowired
+	private SyncService syncService;
+
+	@Autowired
+	private SyncQueueRepository syncQueueRepository;
+
+	@Autowired
+	private PersonRepository personRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Autowired
+	private EmailOutboxService emailOutboxService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private ProbeListener probeListener;
+
+	@MockitoSpyBean
+	private PendingAdditionSyncHandler pendingAdditionHandler;
+
+	private UUID userId;
+	private String run;
+	private LocalDateTime createdAt;
+
+	record ProbeEvent(UUID operationId) {
+	}
+
+	static class ProbeListener {
+
+		private final Set<UUID> fired = ConcurrentHashMap.newKeySet();
+
+		@TransactionalEventListener
+		public void on(ProbeEvent event) {
+			fired.add(event.operationId());
+		}
+	}
+
+	@TestConfiguration
+	static class ProbeConfiguration {
+
+		@Bean
+		ProbeListener probeListener() {
+			return new ProbeListener();
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		run = UUID.randomUUID().toString().substring(0, 8);
+		userId = userRepository.save(User.builder()
+				.email("sync-" + run + "@racines.test")
+				.nom("Sync")
+				.prenom(run)
+				.dateNaissance(LocalDate.of(1980, 1, 1))
+				.role(Role.SUPER_ADMIN)
+				.build()).getId();
+		createdAt = LocalDateTime.now().minusMinutes(1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		personRepository.deleteAll(personRepository.findByCreatedBy(userId));
+		emailOutboxRepository.deleteAll(emailOutboxRepository.findAll().stream()
+				.filter(row -> row.getRecipient().endsWith(run + "@racines.test"))
+				.toList());
+		// Les lignes de sync_queue suivent l'utilisateur (ON DELETE CASCADE)
+		userRepository.deleteById(userId);
+	}
+
+	@Test
+	void failedOperationLeavesNothingBehindAndTheRestOfTheChunkCommits() {
+		failWithSideEffects();
+		SyncQueue first = queuePerson("Alice");
+		SyncQueue failing = queue(EntityType.PENDING_ADDITION, "{}", 0);
+		SyncQueue last = queuePerson("Bruno");
+
+		List<SyncOperationDTO> results = syncService.syncPendingOperations(userId);
+
+		assertThat(results).extracting(SyncOperationDTO::getId).containsExactly(first.getId(), failing.getId(), last.getId());
+		assertThat(results).extracting(SyncOperationDTO::getStatus)
+				.containsExactly(SyncStatus.SYNCED, SyncStatus.PENDING, SyncStatus.SYNCED);
+
+		// Lot rejoué sans l'opération en échec : chaque personne n'existe qu'une fois
+		assertThat(personRepository.findByCreatedBy(userId)).extracting(Person::getPrenom)
+				.containsExactlyInAnyOrder("Alice-" + run, "Bruno-" + run);
+		assertThat(emailOutboxRepository.findAll()).noneMatch(row -> row.getRecipient().equals(failingRecipient()));
+		assertThat(probeListener.fired).doesNotContain(failing.getId());
+
+		SyncQueue failed = syncQueueRepository.findById(failing.getId()).orElseThrow();
+		assertThat(failed.getStatus()).isEqualTo(SyncStatus.PENDING);
+		assertThat(failed.getRetryCount()).isEqualTo(1);
+		assertThat(failed.getErrorMessage()).isEqualTo("échec simulé");
+		assertThat(failed.getResult()).isNull();
+
+		SyncQueue synced = syncQueueRepository.findById(last.getId()).orElseThrow();
+		assertThat(synced.getRetryCount()).isZero();
+		assertThat(synced.getSyncedAt()).isNotNull();
+		assertThat(synced.getResult()).contains("Bruno-" + run);
+	}
+
+	@Test
+	void operationFailsAfterMaxRetriesThenRetryRequeuesItWithAFreshCount() {
+		failWithSideEffects();
+		SyncQueue failing = queue(EntityType.PENDING_ADDITION, "{}", SyncApplyEngine.MAX_RETRIES - 1);
+
+		syncService.syncPendingOperations(userId);
+
+		SyncQueue failed = syncQueueRepository.findById(failing.getId()).orElseThrow();
+		assertThat(failed.getStatus()).isEqualTo(SyncStatus.FAILED);
+		assertThat(failed.getRetryCount()).isEqualTo(SyncApplyEngine.MAX_RETRIES);
+		assertThat(syncService.syncPendingOperations(userId)).isEmpty();
+
+		doAnswer(invocation -> "accepté").when(pendingAdditionHandler).apply(any(), any());
+		List<SyncOperationDTO> retried = syncService.retryFailedOperations(userId);
+
+		assertThat(retried).singleElement().satisfies(operation -> {
+			assertThat(operation.getStatus()).isEqualTo(SyncStatus.SYNCED);
+			assertThat(operation.getRetryCount()).isZero();
+			assertThat(operation.getErrorMessage()).isNull();
+			assertThat(operation.getResult()).isEqualTo("\"accepté\"");
+		});
+	}
+
+	@Test
+	void overlappingSyncDoesNotApplyClaimedOperationsTwice() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			entered.countDown();
+			assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+			return "accepté";
+		}).when(pendingAdditionHandler).apply(any(), any());
+		SyncQueue blocking = queue(EntityType.PENDING_ADDITION, "{}", 0);
+		SyncQueue person = queuePerson("Chloé");
+
+		CompletableFuture<List<SyncOperationDTO>> first =
+				CompletableFuture.supplyAsync(() -> syncService.syncPendingOperations(userId));
+		assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// Le premier appel tient le lot : le second s'arrête sans rien appliquer
+		List<SyncOperationDTO> second = syncService.syncPendingOperations(userId);
+		release.countDown();
+
+		assertThat(second).isEmpty();
+		assertThat(first.get(10, TimeUnit.SECONDS)).extracting(SyncOperationDTO::getId)
+				.containsExactly(blocking.getId(), person.getId());
+		verify(pendingAdditionHandler, times(1)).apply(any(), any());
+		assertThat(personRepository.findByCreatedBy(userId)).hasSize(1);
+	}
+
+	private void failWithSideEffects() {
+		doAnswer(invocation -> {
+			SyncQueue operation = invocation.getArgument(0);
+			personRepository.save(Person.builder()
+					.nom("Fantôme")
+					.prenom("Fantôme-" + run)
+					.createdBy(userId)
+					.build());
+			emailOutboxService.enqueue(new EmailMessage(failingRecipient(), "Fantôme", "<p>Fantôme</p>"));
+			eventPublisher.publishEvent(new ProbeEvent(operation.getId()));
+			throw new ValidationException("échec simulé");
+		}).when(pendingAdditionHandler).apply(any(), any());
+	}
+
+	private String failingRecipient() {
+		return "fantome-" + run + "@racines.test";
+	}
+
+	private SyncQueue queuePerson(String prenom) {
+		return queue(EntityType.PERSON, "{\"nom\":\"Sync\",\"prenom\":\"" + prenom + "-" + run + "\"}", 0);
+	}
+
+	private SyncQueue queue(EntityType entityType, String payload, int retryCount) {
+		createdAt = createdAt.plusSeconds(1);
+		return syncQueueRepository.save(SyncQueue.builder()
+				.userId(userId)
+				.operationType(OperationType.CREATE)
+				.entityType(entityType)
+				.payload(payload)
+				.retryCount(retryCount)
+				.createdAt(createdAt)
+				.build());
+	}
+}
@@ -0,0 +1,187 @@
+package com.racines_app_back.www.util;
+
+import com.racines_app_back.www.exception.EmailTransportUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BrevoTransportTest {
+
+	private static final Duration BLOCK = Duration.ofSeconds(5);
+	private static final Map<String, Object> PAYLOAD = Map.of("subject", "Test");
+
+	private StubBrevoServer brevo;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		brevo = new StubBrevoServer();
+	}
+
+	@AfterEach
+	void tearDown() {
+		brevo.close();
+	}
+
+	@Test
+	void retriesServerErrorsThenSucceeds() {
+		BrevoTransport transport = brevo.transport(4, 5, Duration.ofSeconds(30));
+		brevo.respondWith(500, 503);
+
+		transport.post(PAYLOAD).block(BLOCK);
+
+		assertThat(brevo.requestCount()).isEqualTo(3);
+		assertThat(transport.getStatus()).containsEntry("state", "CLOSED").containsEntry("consecutiveFailures", 0);
+	}
+
+	@Test
+	void retriesRateLimitThenSucceeds() {
+		BrevoTransport transport = brevo.transport(4, 5, Duration.ofSeconds(30));
+		brevo.respondWith(429);
+
+		transport.post(PAYLOAD).block(BLOCK);
+
+		assertThat(brevo.requestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void givesUpAfterMaxRetriesWithTheLastFailure() {
+		BrevoTransport transport = brevo.transport(4, 10, Duration.ofSeconds(30));
+		brevo.respondWith(500, 500, 502);
+
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK))
+				.isInstanceOf(WebClientResponseException.BadGateway.class);
+		assertThat(brevo.requestCount()).isEqualTo(3);
+		assertThat(transport.getStatus()).containsEntry("consecutiveFailures", 3);
+	}
+
+	@Test
+	void clientErrorIsNeitherRetriedNorCountedAgainstTheProvider() {
+		BrevoTransport transport = brevo.transport(4, 1, Duration.ofSeconds(30));
+		brevo.respondWith(400);
+
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK))
+				.isInstanceOf(WebClientResponseException.BadRequest.class);
+		assertThat(brevo.requestCount()).isEqualTo(1);
+		assertThat(transport.getStatus()).containsEntry("state", "CLOSED");
+	}
+
+	@Test
+	void openCircuitFailsFastWithoutCallingBrevo() {
+		BrevoTransport transport = brevo.transport(4, 2, Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(transport, "maxRetries", 0);
+		brevo.respondWith(500, 500);
+
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK)).isInstanceOf(WebClientResponseException.class);
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK)).isInstanceOf(WebClientResponseException.class);
+		assertThat(transport.getStatus()).containsEntry("state", "OPEN");
+
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK))
+				.isInstanceOf(EmailTransportUnavailableException.class);
+		assertThat(brevo.requestCount()).isEqualTo(2);
+		assertThat(transport.getStatus()).containsEntry("rejected", 1L);
+	}
+
+	@Test
+	void circuitGoesHalfOpenThenClosesOnSuccessfulProbe() throws InterruptedException {
+		BrevoTransport transport = brevo.transport(4, 1, Duration.ofMillis(100));
+		ReflectionTestUtils.setField(transport, "maxRetries", 0);
+		brevo.respondWith(500);
+
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK)).isInstanceOf(WebClientResponseException.class);
+		assertThat(transport.getStatus()).containsEntry("state", "OPEN");
+		Thread.sleep(150);
+
+		transport.post(PAYLOAD).block(BLOCK);
+
+		assertThat(transport.getStatus()).containsEntry("state", "CLOSED");
+		assertThat(brevo.requestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void halfOpenLetsASingleProbeThrough() throws Exception {
+		BrevoTransport transport = brevo.transport(4, 1, Duration.ofMillis(100));
+		ReflectionTestUtils.setField(transport, "maxRetries", 0);
+		brevo.respondWith(500);
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK)).isInstanceOf(WebClientResponseException.class);
+		Thread.sleep(150);
+		brevo.delayResponses(Duration.ofMillis(300));
+
+		// L'abonnement prend la place d'essai immédiatement
+		CompletableFuture<Void> probe = transport.post(PAYLOAD).toFuture();
+		assertThat(transport.getStatus()).containsEntry("state", "HALF_OPEN");
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK))
+				.isInstanceOf(EmailTransportUnavailableException.class);
+
+		probe.get(5, TimeUnit.SECONDS);
+		assertThat(transport.getStatus()).containsEntry("state", "CLOSED");
+		assertThat(brevo.requestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrencyLimitRejectsWithoutRetrying() throws Exception {
+		BrevoTransport transport = brevo.transport(1, 5, Duration.ofSeconds(30));
+		brevo.delayResponses(Duration.ofMillis(300));
+
+		CompletableFuture<Void> first = transport.post(PAYLOAD).toFuture();
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK))
+				.isInstanceOf(EmailTransportUnavailableException.class);
+
+		first.get(5, TimeUnit.SECONDS);
+		assertThat(brevo.requestCount()).isEqualTo(1);
+		assertThat(transport.getStatus()).containsEntry("inFlight", 0).containsEntry("consecutiveFailures", 0);
+	}
+
+	@Test
+	void sequentialSendsReuseTheSinglePermit() {
+		BrevoTransport transport = brevo.transport(1, 5, Duration.ofSeconds(30));
+
+		// Le second envoi est souscrit dès la fin du premier, comme dans le concatMap de sendBatch
+		transport.post(PAYLOAD).then(transport.post(PAYLOAD)).block(BLOCK);
+
+		assertThat(brevo.requestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void timeoutReleasesThePermitAndCountsAsFailure() {
+		BrevoTransport transport = brevo.transport(1, 5, Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(transport, "requestTimeout", Duration.ofMillis(100));
+		ReflectionTestUtils.setField(transport, "maxRetries", 0);
+		brevo.delayResponses(Duration.ofMillis(500));
+
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK)).hasRootCauseInstanceOf(TimeoutException.class);
+
+		assertThat(transport.getStatus()).containsEntry("inFlight", 0).containsEntry("consecutiveFailures", 1);
+	}
+
+	@Test
+	void cancellationReleasesThePermitWithoutTouchingTheBreaker() throws InterruptedException {
+		BrevoTransport transport = brevo.transport(1, 1, Duration.ofMillis(100));
+		ReflectionTestUtils.setField(transport, "maxRetries", 0);
+		brevo.respondWith(500);
+		assertThatThrownBy(() -> transport.post(PAYLOAD).block(BLOCK)).isInstanceOf(WebClientResponseException.class);
+		Thread.sleep(150);
+		brevo.delayResponses(Duration.ofMillis(500));
+
+		// Essai semi-ouvert annulé : la place d'essai et le permis sont rendus
+		Disposable probe = transport.post(PAYLOAD).subscribe();
+		assertThat(transport.getStatus()).containsEntry("inFlight", 1);
+		probe.dispose();
+
+		assertThat(transport.getStatus()).containsEntry("inFlight", 0).containsEntry("state", "HALF_OPEN");
+		brevo.delayResponses(Duration.ZERO);
+		transport.post(PAYLOAD).block(BLOCK);
+		assertThat(transport.getStatus()).containsEntry("state", "CLOSED");
+	}
+}
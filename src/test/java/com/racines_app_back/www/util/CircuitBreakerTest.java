@@ -0,0 +1,111 @@
+package com.racines_app_back.www.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+	@Test
+	void staysClosedBelowThresholdAndSuccessResetsTheCount() {
+		CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+
+		breaker.onFailure();
+		breaker.onFailure();
+		breaker.onSuccess();
+		breaker.onFailure();
+		breaker.onFailure();
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.getStatus()).containsEntry("consecutiveFailures", 2);
+	}
+
+	@Test
+	void opensAtThresholdAndRejectsDuringOpenDuration() {
+		CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+		breaker.onFailure();
+		breaker.onFailure();
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.getStatus()).containsEntry("rejected", 2L);
+	}
+
+	@Test
+	void halfOpenProbeSuccessClosesTheCircuit() throws InterruptedException {
+		CircuitBreaker breaker = opened(Duration.ofMillis(50));
+		Thread.sleep(80);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		breaker.onSuccess();
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+	}
+
+	@Test
+	void halfOpenProbeFailureReopensTheCircuit() throws InterruptedException {
+		CircuitBreaker breaker = opened(Duration.ofMillis(50));
+		Thread.sleep(80);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onFailure();
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	@Test
+	void halfOpenAdmitsASingleProbe() throws Exception {
+		CircuitBreaker breaker = opened(Duration.ZERO);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Boolean>> callers = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				callers.add(breaker::tryAcquirePermission);
+			}
+			long granted = 0;
+			for (Future<Boolean> result : executor.invokeAll(callers)) {
+				if (result.get()) {
+					granted++;
+				}
+			}
+			assertThat(granted).isEqualTo(1);
+			assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void ignoredProbeLetsTheNextCallerProbe() {
+		CircuitBreaker breaker = opened(Duration.ZERO);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		breaker.onIgnored();
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+	}
+
+	private static CircuitBreaker opened(Duration openDuration) {
+		CircuitBreaker breaker = new CircuitBreaker(1, openDuration);
+		breaker.onFailure();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		return breaker;
+	}
+}
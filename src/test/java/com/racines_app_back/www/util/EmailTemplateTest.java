@@ -0,0 +1,73 @@
+package com.racines_app_back.www.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateTest {
+
+	@Test
+	void templateWithoutVariablesIsReturnedAsIs() {
+		assertThat(EmailTemplate.parse("<p>Bonjour</p>").render(Map.of())).isEqualTo("<p>Bonjour</p>");
+		assertThat(EmailTemplate.parse("").render(Map.of())).isEmpty();
+	}
+
+	@Test
+	void variablesAreSubstitutedAtStartMiddleAndEnd() {
+		EmailTemplate template = EmailTemplate.parse("{{greeting}}, {{ name }}{{suffix}}");
+
+		assertThat(template.render(Map.of("greeting", "Bonjour", "name", "Awa", "suffix", " !")))
+				.isEqualTo("Bonjour, Awa !");
+	}
+
+	@Test
+	void doubleBracesEscapeHtml() {
+		EmailTemplate template = EmailTemplate.parse("<p>{{name}}</p>");
+
+		assertThat(template.render(Map.of("name", "<script>alert('x')</script> & \"co\"")))
+				.isEqualTo("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;co&quot;</p>");
+	}
+
+	@Test
+	void tripleBracesInsertRawFragment() {
+		EmailTemplate template = EmailTemplate.parse("<ul>{{{items}}}</ul><p>{{count}}</p>");
+
+		assertThat(template.render(Map.of("items", "<li>A &amp; B</li>", "count", "<2>")))
+				.isEqualTo("<ul><li>A &amp; B</li></ul><p>&lt;2&gt;</p>");
+	}
+
+	@Test
+	void unclosedBracesStayLiteral() {
+		assertThat(EmailTemplate.parse("a {{b").render(Map.of())).isEqualTo("a {{b");
+		assertThat(EmailTemplate.parse("{{x}} puis {{{y").render(Map.of("x", "1"))).isEqualTo("1 puis {{{y");
+	}
+
+	@Test
+	void missingVariableIsRejected() {
+		EmailTemplate template = EmailTemplate.parse("<p>{{code}}</p>");
+
+		assertThatThrownBy(() -> template.render(Map.of("autre", "1")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Variable de gabarit manquante: code");
+	}
+
+	@Test
+	void renderingAgainAfterFailureStartsFromAnEmptyBuffer() {
+		EmailTemplate template = EmailTemplate.parse("<p>{{code}}</p>");
+
+		assertThatThrownBy(() -> template.render(Map.of()));
+		assertThat(template.render(Map.of("code", "123456"))).isEqualTo("<p>123456</p>");
+		assertThat(template.render(Map.of("code", "654321"))).isEqualTo("<p>654321</p>");
+	}
+
+	@Test
+	void escapeHtmlLeavesOtherCharactersUntouched() {
+		StringBuilder out = new StringBuilder("x=");
+		EmailTemplate.escapeHtml("Généalogie 🌳 <&>", out);
+
+		assertThat(out).hasToString("x=Généalogie 🌳 &lt;&amp;&gt;");
+	}
+}
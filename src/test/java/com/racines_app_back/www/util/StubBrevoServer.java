@@ -0,0 +1,97 @@
+package com.racines_app_back.www.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Faux serveur Brevo local : répond aux POST /smtp/email avec les statuts programmés, puis 201
+public class StubBrevoServer implements AutoCloseable {
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+	private final List<String> bodies = new CopyOnWriteArrayList<>();
+	private volatile Duration delay = Duration.ZERO;
+
+	public StubBrevoServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/smtp/email", this::handle);
+		server.start();
+	}
+
+	public void respondWith(int... codes) {
+		for (int code : codes) {
+			statuses.add(code);
+		}
+	}
+
+	public void delayResponses(Duration delay) {
+		this.delay = delay;
+	}
+
+	public String url() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	public int requestCount() {
+		return bodies.size();
+	}
+
+	public List<String> bodies() {
+		return bodies;
+	}
+
+	// Transport réel pointant sur ce serveur, avec des délais de reprise courts
+	public BrevoTransport transport(int maxConcurrency, int failureThreshold, Duration openDuration) {
+		BrevoTransport transport = new BrevoTransport(WebClient.builder().build(), maxConcurrency, failureThreshold, openDuration);
+		ReflectionTestUtils.setField(transport, "apiKey", "test-key");
+		ReflectionTestUtils.setField(transport, "apiUrl", url());
+		ReflectionTestUtils.setField(transport, "requestTimeout", Duration.ofSeconds(2));
+		ReflectionTestUtils.setField(transport, "maxRetries", 2);
+		ReflectionTestUtils.setField(transport, "initialBackoff", Duration.ofMillis(10));
+		ReflectionTestUtils.setField(transport, "maxBackoff", Duration.ofMillis(50));
+		return transport;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange; InputStream in = exchange.getRequestBody()) {
+			bodies.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			if (!delay.isZero()) {
+				try {
+					Thread.sleep(delay.toMillis());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			Integer status = statuses.poll();
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status != null ? status : 201, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+}